@@ -0,0 +1,202 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Micro benchmarks for the per-frame paths of the engine, run on a stock JVM
+ * through {@code ./gradlew :anime-core:benchmark}.
+ * <p>
+ * The numbers are only comparable between runs on the same machine. They are
+ * meant to catch regressions in the relative cost of the interpolation and
+ * bookkeeping paths, not to predict frame times on a device.
+ */
+public final class CoreBenchmarks {
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int OPERATIONS_PER_ROUND = 1 << 20;
+    private static final int ARRAY_LENGTH = 64;
+
+    /**
+     * Accumulates benchmark results so the JIT cannot discard the work being measured.
+     */
+    private static long sink;
+
+    private CoreBenchmarks() {
+    }
+
+    public static void main(String[] args) {
+        final Benchmark[] benchmarks = {
+                new Benchmark("interpolateFloats") {
+                    @Override
+                    long run(int operations) {
+                        float sum = 0f;
+                        for (int i = 0; i < operations; i++) {
+                            sum += AnimeMath.interpolateFloats(fraction(i), -100f, 100f);
+                        }
+                        return (long) sum;
+                    }
+                },
+                new Benchmark("interpolateColors") {
+                    @Override
+                    long run(int operations) {
+                        long sum = 0;
+                        for (int i = 0; i < operations; i++) {
+                            sum += AnimeMath.interpolateColors(fraction(i), 0xff000000, 0xffffffff);
+                        }
+                        return sum;
+                    }
+                },
+                new Benchmark("interpolateColorsLinear") {
+                    @Override
+                    long run(int operations) {
+                        long sum = 0;
+                        for (int i = 0; i < operations; i++) {
+                            sum += AnimeMath.interpolateColorsLinear(fraction(i), 0xff123456, 0xffabcdef);
+                        }
+                        return sum;
+                    }
+                },
+                new Benchmark("interpolateColorsLinearPremultiplied") {
+                    @Override
+                    long run(int operations) {
+                        long sum = 0;
+                        for (int i = 0; i < operations; i++) {
+                            sum += AnimeMath.interpolateColorsLinearPremultiplied(fraction(i),
+                                                                                  0x20123456,
+                                                                                  0xe0abcdef);
+                        }
+                        return sum;
+                    }
+                },
+                new Benchmark("interpolateFloats[" + ARRAY_LENGTH + "]", ARRAY_LENGTH) {
+                    final float[] start = new float[ARRAY_LENGTH];
+                    final float[] end = new float[ARRAY_LENGTH];
+                    final float[] destination = new float[ARRAY_LENGTH];
+
+                    @Override
+                    long run(int operations) {
+                        for (int i = 0; i < operations; i++) {
+                            end[i % ARRAY_LENGTH] = i;
+                            AnimeMath.interpolateFloats(fraction(i), start, end, destination,
+                                                        0, ARRAY_LENGTH);
+                        }
+                        return (long) destination[0];
+                    }
+                },
+                new Benchmark("interpolateColorsLinear[" + ARRAY_LENGTH + "]", ARRAY_LENGTH) {
+                    final int[] start = new int[ARRAY_LENGTH];
+                    final int[] end = new int[ARRAY_LENGTH];
+                    final int[] destination = new int[ARRAY_LENGTH];
+
+                    @Override
+                    long run(int operations) {
+                        for (int i = 0; i < operations; i++) {
+                            end[i % ARRAY_LENGTH] = 0xff000000 | i;
+                            AnimeMath.interpolateColorsLinear(fraction(i), start, end, destination,
+                                                              0, ARRAY_LENGTH, true);
+                        }
+                        return destination[0];
+                    }
+                },
+                new Benchmark("ActivityCounter begin/end") {
+                    final ActivityCounter counter = new ActivityCounter(this, new ImmediateScheduler(),
+                                                                        new ActivityCounter.Listener() {
+                        @Override
+                        public void onIdle(List<Runnable> tasks) {
+                        }
+                    });
+
+                    @Override
+                    long run(int operations) {
+                        long sum = 0;
+                        for (int i = 0; i < operations; i++) {
+                            final int token = counter.begin("benchmark");
+                            sum += token;
+                            counter.end(token);
+                        }
+                        return sum;
+                    }
+                },
+        };
+
+        System.out.println(String.format(Locale.US, "%-40s %12s", "benchmark", "ns/op"));
+        for (final Benchmark benchmark : benchmarks) {
+            benchmark.measure();
+        }
+        System.out.println("(sink: " + sink + ")");
+    }
+
+    private static float fraction(int i) {
+        return (i & 0xffff) / (float) 0xffff;
+    }
+
+    private static abstract class Benchmark {
+        private final String name;
+        private final int operationsPerCall;
+
+        Benchmark(String name, int operationsPerCall) {
+            this.name = name;
+            this.operationsPerCall = operationsPerCall;
+        }
+
+        Benchmark(String name) {
+            this(name, 1);
+        }
+
+        /**
+         * Runs the benchmarked operation a number of times.
+         *
+         * @param operations The number of times to run the operation.
+         * @return A value derived from the results, fed to {@link #sink}.
+         */
+        abstract long run(int operations);
+
+        void measure() {
+            final int operations = OPERATIONS_PER_ROUND / operationsPerCall;
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                sink += run(operations);
+            }
+
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                final long start = System.nanoTime();
+                sink += run(operations);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+
+            final double nanosPerOperation = best / (double) (operations * (long) operationsPerCall);
+            System.out.println(String.format(Locale.US, "%-40s %12.2f", name, nanosPerOperation));
+        }
+    }
+
+    /**
+     * Runs scheduled tasks immediately. The benchmarks never become idle
+     * with queued tasks, so nothing is actually scheduled.
+     */
+    private static class ImmediateScheduler implements Scheduler {
+        @Override
+        public void schedule(Runnable task, long delayMillis) {
+            task.run();
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts the active animations within an animator context, and defers tasks until
+ * the count returns to zero.
+ * <p>
+ * The counter is idle while no animations are active and it isn't paused. Tasks given to
+ * {@link #runWhenIdle(Runnable)} while the counter is busy are queued, and handed to the
+ * {@link Listener} on the next turn of the scheduler after the counter becomes idle. An
+ * animation that begins before that turn keeps the tasks queued, so back-to-back
+ * animations are treated as one continuous period of activity.
+ * <p>
+ * Every begin is identified by a token, so animations that share a name can be told
+ * apart when one of them is ended on the other's behalf by {@link #forceEnd(int)}.
+ */
+public class ActivityCounter {
+    /**
+     * A token that never identifies an animation.
+     */
+    public static final int NO_TOKEN = 0;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The number of forced ends remembered for {@link #resolveToken(String)}.
+     * The oldest are forgotten first, so animations that never end can't grow the list.
+     */
+    private static final int MAX_FORCED_ENDS = 16;
+
+    private final Object owner;
+    private final Scheduler scheduler;
+    private final Listener listener;
+    private final List<Runnable> idleTasks = new ArrayList<>();
+    private final List<Integer> forcedEndTokens = new ArrayList<>();
+    private final List<String> forcedEndNames = new ArrayList<>();
+    private final Runnable dispatchIdle = new Runnable() {
+        @Override
+        public void run() {
+            dispatchIdle();
+        }
+    };
+
+    private int[] tokens = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int activeCount = 0;
+    private int lastToken = NO_TOKEN;
+    private boolean paused = false;
+
+    /**
+     * Constructs an activity counter.
+     *
+     * @param owner     The object that owns the counter, used for error messages.
+     * @param scheduler The scheduler to dispatch idle tasks through.
+     * @param listener  The listener to hand idle tasks to.
+     */
+    public ActivityCounter(Object owner, Scheduler scheduler, Listener listener) {
+        this.owner = owner;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+
+    //region Counting
+
+    /**
+     * Increments the active animation count, keeping any queued tasks queued.
+     *
+     * @param name The name of the animation.
+     * @return A token identifying this begin, to be passed to {@link #end(int)}.
+     */
+    public int begin(String name) {
+        scheduler.cancel(dispatchIdle);
+
+        if (activeCount == tokens.length) {
+            this.tokens = Arrays.copyOf(tokens, activeCount * 2);
+            this.names = Arrays.copyOf(names, activeCount * 2);
+        }
+
+        final int token = nextToken();
+        tokens[activeCount] = token;
+        names[activeCount] = name;
+        activeCount++;
+        return token;
+    }
+
+    private int nextToken() {
+        this.lastToken++;
+        if (lastToken == NO_TOKEN) {
+            this.lastToken++;
+        }
+        return lastToken;
+    }
+
+    /**
+     * Decrements the active animation count on behalf of the begin a token identifies.
+     * If the count reaches zero, the queued tasks are dispatched on the next turn of
+     * the scheduler.
+     *
+     * @param token The token returned by {@link #begin(String)}.
+     * @return false if the animation was already ended, e.g. by {@link #forceEnd(int)};
+     *         true otherwise.
+     */
+    public boolean end(int token) {
+        final int index = indexOfToken(token);
+        if (index == -1) {
+            final int forcedIndex = forcedEndTokens.indexOf(token);
+            if (forcedIndex != -1) {
+                forcedEndTokens.remove(forcedIndex);
+                forcedEndNames.remove(forcedIndex);
+            }
+            return false;
+        }
+
+        remove(index);
+        if (activeCount == 0) {
+            scheduleIdle();
+        }
+        return true;
+    }
+
+    /**
+     * Decrements the active animation count on behalf of an animation that has not ended.
+     * The animation's own call to {@link #end(int)} is absorbed.
+     *
+     * @param token The token returned by {@link #begin(String)}.
+     * @return true if the count was decremented; false if the animation is not active.
+     */
+    public boolean forceEnd(int token) {
+        final int index = indexOfToken(token);
+        if (index == -1) {
+            return false;
+        }
+
+        if (forcedEndTokens.size() == MAX_FORCED_ENDS) {
+            forcedEndTokens.remove(0);
+            forcedEndNames.remove(0);
+        }
+        forcedEndTokens.add(token);
+        forcedEndNames.add(names[index]);
+
+        remove(index);
+        if (activeCount == 0) {
+            scheduleIdle();
+        }
+        return true;
+    }
+
+    /**
+     * Finds the token an end identified only by name refers to. This is the most recent
+     * active animation with the name, then the most recent forced end with the name, and
+     * finally, for callers that end under a different name than they began with, the most
+     * recent active animation.
+     *
+     * @param name The name of the animation.
+     * @return The token to pass to {@link #end(int)}.
+     * @throws IllegalStateException if no animations are active, and none were forced to end.
+     */
+    public int resolveToken(String name) {
+        for (int i = activeCount - 1; i >= 0; i--) {
+            if (names[i].equals(name)) {
+                return tokens[i];
+            }
+        }
+
+        final int forcedIndex = forcedEndNames.lastIndexOf(name);
+        if (forcedIndex != -1) {
+            return forcedEndTokens.get(forcedIndex);
+        }
+
+        if (activeCount == 0) {
+            throw new IllegalStateException("Animation '" + name + "'" +
+                                                    " ended more than once in " + owner);
+        }
+
+        return tokens[activeCount - 1];
+    }
+
+    /**
+     * @param token The token returned by {@link #begin(String)}.
+     * @return The name of the active animation, or {@code null} if it's not active.
+     */
+    public String getName(int token) {
+        final int index = indexOfToken(token);
+        return (index != -1) ? names[index] : null;
+    }
+
+    private int indexOfToken(int token) {
+        for (int i = activeCount - 1; i >= 0; i--) {
+            if (tokens[i] == token) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void remove(int index) {
+        final int moved = activeCount - index - 1;
+        if (moved > 0) {
+            System.arraycopy(tokens, index + 1, tokens, index, moved);
+            System.arraycopy(names, index + 1, names, index, moved);
+        }
+        activeCount--;
+        names[activeCount] = null;
+    }
+
+    /**
+     * @return The number of active animations.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return The number of forced ends waiting to absorb a late end.
+     */
+    public int getForcedEndCount() {
+        return forcedEndTokens.size();
+    }
+
+    //endregion
+
+
+    //region Idle Tasks
+
+    /**
+     * Runs a task immediately if the counter is idle, otherwise
+     * queues it to be dispatched once the counter becomes idle.
+     *
+     * @param task The task.
+     */
+    public void runWhenIdle(Runnable task) {
+        if (isIdle()) {
+            task.run();
+        } else {
+            idleTasks.add(task);
+        }
+    }
+
+    /**
+     * @return Whether or not the counter is idle.
+     */
+    public boolean isIdle() {
+        return (activeCount == 0 && !paused);
+    }
+
+    /**
+     * @return The number of tasks waiting for the counter to become idle.
+     */
+    public int getIdleTaskCount() {
+        return idleTasks.size();
+    }
+
+    /**
+     * @return A copy of the tasks waiting for the counter to become idle.
+     */
+    public List<Runnable> copyIdleTasks() {
+        return new ArrayList<>(idleTasks);
+    }
+
+    private void scheduleIdle() {
+        scheduler.cancel(dispatchIdle);
+        scheduler.schedule(dispatchIdle, 0L);
+    }
+
+    private void dispatchIdle() {
+        if (paused) {
+            return;
+        }
+
+        // Tasks may queue more tasks, so the queue is emptied before any of them run.
+        final List<Runnable> tasks = new ArrayList<>(idleTasks);
+        idleTasks.clear();
+        listener.onIdle(tasks);
+    }
+
+    //endregion
+
+
+    //region Pausing
+
+    /**
+     * Pauses the counter. While paused, queued tasks are not dispatched.
+     */
+    public void pause() {
+        this.paused = true;
+    }
+
+    /**
+     * Resumes the counter, dispatching any queued tasks if no animations are active.
+     */
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+
+        this.paused = false;
+        if (activeCount == 0 && !idleTasks.isEmpty()) {
+            scheduleIdle();
+        }
+    }
+
+    /**
+     * @return Whether or not the counter is paused.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    //endregion
+
+
+    /**
+     * Receives the tasks queued while a counter was busy.
+     */
+    public interface Listener {
+        /**
+         * Called on the scheduler's thread once the counter becomes idle.
+         * The tasks have already been removed from the counter.
+         *
+         * @param tasks The tasks to run, in the order they were queued.
+         */
+        void onIdle(List<Runnable> tasks);
+    }
+}
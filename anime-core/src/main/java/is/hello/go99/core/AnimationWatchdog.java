@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import java.util.Arrays;
+
+/**
+ * Remembers when each active animation within an animator context began, and reports
+ * the animations that are still active once a timeout has elapsed.
+ * <p>
+ * Animations are identified by the tokens an {@link ActivityCounter} hands out, so
+ * animations that share a name are watched independently of each other.
+ */
+public class AnimationWatchdog {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Listener listener;
+    private final long timeoutMillis;
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final Runnable checkTask = new Runnable() {
+        @Override
+        public void run() {
+            check();
+        }
+    };
+
+    private int[] tokens = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private long[] beganAt = new long[INITIAL_CAPACITY];
+    private int count = 0;
+    private boolean paused = false;
+    private long pausedAt = 0L;
+
+    /**
+     * Constructs a watchdog.
+     *
+     * @param timeoutMillis How long an animation may remain active before it's reported.
+     * @param clock         The clock to measure animations with.
+     * @param scheduler     The scheduler to check for timed out animations through.
+     * @param listener      The listener to report timed out animations to.
+     */
+    public AnimationWatchdog(long timeoutMillis,
+                             Clock clock,
+                             Scheduler scheduler,
+                             Listener listener) {
+        if (timeoutMillis <= 0L) {
+            throw new IllegalArgumentException("timeoutMillis must be positive");
+        }
+
+        this.timeoutMillis = timeoutMillis;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+
+    //region Tokens
+
+    /**
+     * Records the beginning of an animation.
+     *
+     * @param token The token identifying the animation.
+     * @param name  The name of the animation.
+     */
+    public void onBegin(int token, String name) {
+        if (count == names.length) {
+            this.tokens = Arrays.copyOf(tokens, count * 2);
+            this.names = Arrays.copyOf(names, count * 2);
+            this.beganAt = Arrays.copyOf(beganAt, count * 2);
+        }
+
+        // Animations that begin while paused start their clock on resume.
+        tokens[count] = token;
+        names[count] = name;
+        beganAt[count] = paused ? pausedAt : clock.uptimeMillis();
+        count++;
+
+        if (count == 1 && !paused) {
+            scheduleCheck(timeoutMillis);
+        }
+    }
+
+    /**
+     * Forgets the beginning of an animation. Tokens that were never recorded are ignored.
+     *
+     * @param token The token identifying the animation.
+     */
+    public void onEnd(int token) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (tokens[i] == token) {
+                remove(i);
+                break;
+            }
+        }
+
+        if (count == 0) {
+            scheduler.cancel(checkTask);
+        }
+    }
+
+    private void remove(int index) {
+        final int moved = count - index - 1;
+        if (moved > 0) {
+            System.arraycopy(tokens, index + 1, tokens, index, moved);
+            System.arraycopy(names, index + 1, names, index, moved);
+            System.arraycopy(beganAt, index + 1, beganAt, index, moved);
+        }
+        count--;
+        names[count] = null;
+    }
+
+    /**
+     * @return The number of animations the watchdog is watching.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    //endregion
+
+
+    //region Pausing
+
+    /**
+     * Stops the clock of every watched animation.
+     */
+    public void pause() {
+        if (!paused) {
+            this.paused = true;
+            this.pausedAt = clock.uptimeMillis();
+            scheduler.cancel(checkTask);
+        }
+    }
+
+    /**
+     * Restarts the clock of every watched animation, discounting the time spent paused.
+     */
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+
+        final long pausedFor = clock.uptimeMillis() - pausedAt;
+        for (int i = 0; i < count; i++) {
+            beganAt[i] += pausedFor;
+        }
+        this.paused = false;
+
+        if (count > 0) {
+            scheduleCheck(beganAt[0] + timeoutMillis - clock.uptimeMillis());
+        }
+    }
+
+    /**
+     * Stops the watchdog, forgetting every watched animation.
+     */
+    public void stop() {
+        scheduler.cancel(checkTask);
+        Arrays.fill(names, 0, count, null);
+        this.count = 0;
+        this.paused = false;
+    }
+
+    //endregion
+
+
+    //region Checking
+
+    private void scheduleCheck(long delayMillis) {
+        scheduler.cancel(checkTask);
+        scheduler.schedule(checkTask, Math.max(0L, delayMillis));
+    }
+
+    /**
+     * Reports every watched animation that has been active longer than the timeout.
+     */
+    public void check() {
+        final long now = clock.uptimeMillis();
+
+        // Entries are ordered by begin time, so the timed out animations are always
+        // at the front. Each is forgotten before it's reported, so a listener that
+        // ends the animation will not find it again.
+        while (count > 0 && now - beganAt[0] >= timeoutMillis) {
+            final int token = tokens[0];
+            final String name = names[0];
+            final long elapsed = now - beganAt[0];
+            remove(0);
+            listener.onAnimationTimedOut(token, name, elapsed);
+        }
+
+        if (count > 0 && !paused) {
+            scheduleCheck(beganAt[0] + timeoutMillis - now);
+        }
+    }
+
+    //endregion
+
+
+    /**
+     * Receives animations that have been active for longer than a watchdog's timeout.
+     */
+    public interface Listener {
+        /**
+         * Called when an animation has been active for longer than the watchdog's timeout.
+         * The watchdog stops watching the animation before calling this method.
+         *
+         * @param token The token identifying the animation.
+         * @param name The name of the animation.
+         * @param elapsedMillis How long the animation has been active.
+         */
+        void onAnimationTimedOut(int token, String name, long elapsedMillis);
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+/**
+ * The platform independent math behind the animation engine.
+ * <p>
+ * Every method is a pure function of its parameters, and none of them allocate.
+ */
+public final class AnimeMath {
+    /**
+     * The largest value in the linear light color tables. Linear values use 12 bits
+     * of precision so that every sRGB channel value survives a round trip unchanged.
+     */
+    private static final int LINEAR_MAX = 4095;
+
+    /**
+     * Maps 8-bit sRGB channel values to 12-bit linear light channel values.
+     */
+    private static final int[] SRGB_TO_LINEAR = new int[256];
+
+    /**
+     * Maps 12-bit linear light channel values to 8-bit sRGB channel values.
+     */
+    private static final byte[] LINEAR_TO_SRGB = new byte[LINEAR_MAX + 1];
+
+    static {
+        for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+            final double srgb = i / 255.0;
+            final double linear = srgb <= 0.04045
+                    ? srgb / 12.92
+                    : Math.pow((srgb + 0.055) / 1.055, 2.4);
+            SRGB_TO_LINEAR[i] = (int) Math.round(linear * LINEAR_MAX);
+        }
+
+        for (int i = 0; i < LINEAR_TO_SRGB.length; i++) {
+            final double linear = i / (double) LINEAR_MAX;
+            final double srgb = linear <= 0.0031308
+                    ? linear * 12.92
+                    : 1.055 * Math.pow(linear, 1.0 / 2.4) - 0.055;
+            LINEAR_TO_SRGB[i] = (byte) Math.round(srgb * 255.0);
+        }
+    }
+
+
+    //region Velocities
+
+    /**
+     * Calculate an animation duration for a given velocity over a given range of pixels.
+     *
+     * @param velocity      The velocity. Pixels/ms
+     * @param area          The area the movement was contained within. Pixels.
+     * @param minDuration   The shortest duration to return.
+     * @param maxDuration   The longest duration to return.
+     * @return A duration for use with an Animator.
+     */
+    public static long calculateDuration(float velocity, float area, long minDuration, long maxDuration) {
+        long rawDuration = (long) (area / velocity) * 1000 / 2;
+        return Math.max(minDuration, Math.min(maxDuration, rawDuration));
+    }
+
+    //endregion
+
+
+    //region Interpolation
+
+    /**
+     * Linearly interpolates between two float values.
+     *
+     * @param fraction The fraction from the starting to the ending values.
+     * @param start The start value.
+     * @param end The end value.
+     * @return A linear interpolation between the start and end values, given the
+     *         {@code fraction} parameter.
+     */
+    public static float interpolateFloats(float fraction, float start, float end) {
+        return start + fraction * (end - start);
+    }
+
+    /**
+     * Linearly interpolates between two int values, truncating towards the start value.
+     *
+     * @param fraction The fraction from the starting to the ending values.
+     * @param start The start value.
+     * @param end The end value.
+     * @return A linear interpolation between the start and end values, given the
+     *         {@code fraction} parameter.
+     */
+    public static int interpolateInts(float fraction, int start, int end) {
+        return start + (int) ((end - start) * fraction);
+    }
+
+    /**
+     * Interpolates each channel of two ARGB colors in sRGB space.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColor The start color.
+     * @param endColor The end color.
+     * @return A linear interpolation between the start and end colors, given the
+     *         {@code fraction} parameter.
+     */
+    public static int interpolateColors(float fraction, int startColor, int endColor) {
+        int startA = (startColor >> 24) & 0xff;
+        int startR = (startColor >> 16) & 0xff;
+        int startG = (startColor >> 8) & 0xff;
+        int startB = startColor & 0xff;
+
+        int endA = (endColor >> 24) & 0xff;
+        int endR = (endColor >> 16) & 0xff;
+        int endG = (endColor >> 8) & 0xff;
+        int endB = endColor & 0xff;
+
+        return (startA + (int)(fraction * (endA - startA))) << 24 |
+                (startR + (int)(fraction * (endR - startR))) << 16 |
+                (startG + (int)(fraction * (endG - startG))) << 8 |
+                (startB + (int)(fraction * (endB - startB)));
+    }
+
+    /**
+     * Bulk form of {@link #interpolateFloats(float, float, float)}. Interpolates
+     * a range of values from two arrays, writing the results into a third array.
+     * <p>
+     * The destination array may be the same instance as either source array.
+     *
+     * @param fraction The fraction from the starting to the ending values.
+     * @param start The start values.
+     * @param end The end values.
+     * @param destination The array to write interpolated values into.
+     * @param offset The index of the first value to interpolate.
+     * @param length The number of values to interpolate.
+     * @throws ArrayIndexOutOfBoundsException if the range exceeds the bounds of any array.
+     */
+    public static void interpolateFloats(float fraction,
+                                         float[] start,
+                                         float[] end,
+                                         float[] destination,
+                                         int offset,
+                                         int length) {
+        checkRange(start.length, offset, length);
+        checkRange(end.length, offset, length);
+        checkRange(destination.length, offset, length);
+
+        for (int i = offset, limit = offset + length; i < limit; i++) {
+            final float startValue = start[i];
+            destination[i] = startValue + fraction * (end[i] - startValue);
+        }
+    }
+
+    /**
+     * Bulk form of {@link #interpolateColors(float, int, int)}. Interpolates
+     * a range of colors from two arrays, writing the results into a third array.
+     * <p>
+     * The destination array may be the same instance as either source array.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColors The start colors.
+     * @param endColors The end colors.
+     * @param destination The array to write interpolated colors into.
+     * @param offset The index of the first color to interpolate.
+     * @param length The number of colors to interpolate.
+     * @throws ArrayIndexOutOfBoundsException if the range exceeds the bounds of any array.
+     */
+    public static void interpolateColors(float fraction,
+                                         int[] startColors,
+                                         int[] endColors,
+                                         int[] destination,
+                                         int offset,
+                                         int length) {
+        checkRange(startColors.length, offset, length);
+        checkRange(endColors.length, offset, length);
+        checkRange(destination.length, offset, length);
+
+        for (int i = offset, limit = offset + length; i < limit; i++) {
+            final int startColor = startColors[i];
+            final int endColor = endColors[i];
+
+            final int startA = (startColor >> 24) & 0xff;
+            final int startR = (startColor >> 16) & 0xff;
+            final int startG = (startColor >> 8) & 0xff;
+            final int startB = startColor & 0xff;
+
+            destination[i] = (startA + (int) (fraction * (((endColor >> 24) & 0xff) - startA))) << 24 |
+                    (startR + (int) (fraction * (((endColor >> 16) & 0xff) - startR))) << 16 |
+                    (startG + (int) (fraction * (((endColor >> 8) & 0xff) - startG))) << 8 |
+                    (startB + (int) (fraction * ((endColor & 0xff) - startB)));
+        }
+    }
+
+    /**
+     * Interpolates between two colors in linear light instead of sRGB space.
+     * Gradients produced by this method do not have the muddy midpoints of
+     * {@link #interpolateColors(float, int, int)}, at a comparable cost.
+     * <p>
+     * The alpha channel is interpolated linearly.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColor The start color.
+     * @param endColor The end color.
+     * @return A linear light interpolation between the start and end colors,
+     *         given the {@code fraction} parameter.
+     */
+    public static int interpolateColorsLinear(float fraction, int startColor, int endColor) {
+        final int startA = (startColor >> 24) & 0xff;
+        final int startR = SRGB_TO_LINEAR[(startColor >> 16) & 0xff];
+        final int startG = SRGB_TO_LINEAR[(startColor >> 8) & 0xff];
+        final int startB = SRGB_TO_LINEAR[startColor & 0xff];
+
+        final int endA = (endColor >> 24) & 0xff;
+        final int endR = SRGB_TO_LINEAR[(endColor >> 16) & 0xff];
+        final int endG = SRGB_TO_LINEAR[(endColor >> 8) & 0xff];
+        final int endB = SRGB_TO_LINEAR[endColor & 0xff];
+
+        return (startA + (int) (fraction * (endA - startA))) << 24 |
+                toSrgb(startR + (int) (fraction * (endR - startR))) << 16 |
+                toSrgb(startG + (int) (fraction * (endG - startG))) << 8 |
+                toSrgb(startB + (int) (fraction * (endB - startB)));
+    }
+
+    /**
+     * Interpolates between two colors in linear light with premultiplied alpha.
+     * <p>
+     * Use this variant when the start and end colors have different alpha values.
+     * Fading from a transparent color into an opaque one will not pick up the
+     * color channels of the transparent end point along the way.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColor The start color.
+     * @param endColor The end color.
+     * @return A premultiplied linear light interpolation between the start and end
+     *         colors, given the {@code fraction} parameter. The result is not premultiplied.
+     *         Fractions of exactly {@code 0} and {@code 1} return the start and end colors.
+     */
+    public static int interpolateColorsLinearPremultiplied(float fraction, int startColor, int endColor) {
+        // Un-premultiplying low alpha colors loses precision, so the end points are exact.
+        if (fraction == 0f) {
+            return startColor;
+        } else if (fraction == 1f) {
+            return endColor;
+        }
+
+        final float startA = ((startColor >> 24) & 0xff) / 255f;
+        final float endA = ((endColor >> 24) & 0xff) / 255f;
+        final float alpha = startA + fraction * (endA - startA);
+        if (alpha <= 0f) {
+            return 0;
+        }
+
+        final float startR = SRGB_TO_LINEAR[(startColor >> 16) & 0xff] * startA;
+        final float startG = SRGB_TO_LINEAR[(startColor >> 8) & 0xff] * startA;
+        final float startB = SRGB_TO_LINEAR[startColor & 0xff] * startA;
+
+        final float endR = SRGB_TO_LINEAR[(endColor >> 16) & 0xff] * endA;
+        final float endG = SRGB_TO_LINEAR[(endColor >> 8) & 0xff] * endA;
+        final float endB = SRGB_TO_LINEAR[endColor & 0xff] * endA;
+
+        final int r = Math.round((startR + fraction * (endR - startR)) / alpha);
+        final int g = Math.round((startG + fraction * (endG - startG)) / alpha);
+        final int b = Math.round((startB + fraction * (endB - startB)) / alpha);
+
+        return Math.round(alpha * 255f) << 24 |
+                toSrgb(r) << 16 |
+                toSrgb(g) << 8 |
+                toSrgb(b);
+    }
+
+    /**
+     * Bulk form of {@link #interpolateColorsLinear(float, int, int)} and
+     * {@link #interpolateColorsLinearPremultiplied(float, int, int)}.
+     * <p>
+     * The destination array may be the same instance as either source array.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColors The start colors.
+     * @param endColors The end colors.
+     * @param destination The array to write interpolated colors into.
+     * @param offset The index of the first color to interpolate.
+     * @param length The number of colors to interpolate.
+     * @param premultiplied Whether or not to interpolate with premultiplied alpha.
+     * @throws ArrayIndexOutOfBoundsException if the range exceeds the bounds of any array.
+     */
+    public static void interpolateColorsLinear(float fraction,
+                                               int[] startColors,
+                                               int[] endColors,
+                                               int[] destination,
+                                               int offset,
+                                               int length,
+                                               boolean premultiplied) {
+        checkRange(startColors.length, offset, length);
+        checkRange(endColors.length, offset, length);
+        checkRange(destination.length, offset, length);
+
+        final int limit = offset + length;
+        if (premultiplied) {
+            for (int i = offset; i < limit; i++) {
+                destination[i] = interpolateColorsLinearPremultiplied(fraction, startColors[i], endColors[i]);
+            }
+        } else {
+            for (int i = offset; i < limit; i++) {
+                destination[i] = interpolateColorsLinear(fraction, startColors[i], endColors[i]);
+            }
+        }
+    }
+
+    /**
+     * Converts a linear light channel value into an sRGB channel value. Values
+     * outside of the table are clamped, which occurs with overshooting interpolators.
+     */
+    private static int toSrgb(int linear) {
+        return LINEAR_TO_SRGB[Math.max(0, Math.min(LINEAR_MAX, linear))] & 0xff;
+    }
+
+    /**
+     * Validates a range up front so the bulk interpolation loops stay free of branches.
+     */
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("offset=" + offset + ", length=" + length +
+                                                             ", array length=" + arrayLength);
+        }
+    }
+
+    //endregion
+
+
+    private AnimeMath() {
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+/**
+ * A source of monotonic time for the animation engine.
+ * <p>
+ * The engine never reads the time directly, so that it can be driven by
+ * {@code SystemClock} on Android, and by a fake clock in tests on the JVM.
+ */
+public interface Clock {
+    /**
+     * A clock backed by {@link System#nanoTime()}.
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long uptimeMillis() {
+            return System.nanoTime() / 1000000L;
+        }
+    };
+
+    /**
+     * @return The current time in milliseconds. Only meaningful relative to other
+     *         values returned by the same clock.
+     */
+    long uptimeMillis();
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+/**
+ * Runs tasks on the thread that owns the animation engine.
+ * <p>
+ * Every task is run on the same thread as the engine object that scheduled it,
+ * so the engine does not need to synchronize. On Android, this is the main thread.
+ */
+public interface Scheduler {
+    /**
+     * Schedules a task to run after a delay. Scheduling a task that is already
+     * scheduled results in it running multiple times.
+     *
+     * @param task        The task.
+     * @param delayMillis How long to wait before running the task. May be zero.
+     */
+    void schedule(Runnable task, long delayMillis);
+
+    /**
+     * Removes every scheduled run of a task. Has no effect if the task isn't scheduled.
+     *
+     * @param task The task.
+     */
+    void cancel(Runnable task);
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ActivityCounterTests {
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final List<Runnable> dispatched = new ArrayList<>();
+    private final ActivityCounter counter = new ActivityCounter("Test", scheduler, new ActivityCounter.Listener() {
+        @Override
+        public void onIdle(List<Runnable> tasks) {
+            dispatched.addAll(tasks);
+            for (final Runnable task : tasks) {
+                task.run();
+            }
+        }
+    });
+
+    @Test
+    public void runsImmediatelyWhenIdle() throws Exception {
+        final Runnable task = mock(Runnable.class);
+        counter.runWhenIdle(task);
+        verify(task).run();
+        assertThat(counter.getIdleTaskCount(), is(equalTo(0)));
+        assertThat(scheduler.getScheduledCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void defersUntilIdle() throws Exception {
+        final Runnable task = mock(Runnable.class);
+        final int first = counter.begin("First");
+        final int second = counter.begin("Second");
+        assertThat(counter.getActiveCount(), is(equalTo(2)));
+        counter.runWhenIdle(task);
+        assertThat(counter.getIdleTaskCount(), is(equalTo(1)));
+
+        assertThat(counter.end(first), is(true));
+        scheduler.runDue();
+        verify(task, never()).run();
+
+        assertThat(counter.end(second), is(true));
+        verify(task, never()).run();
+
+        scheduler.runDue();
+        verify(task).run();
+        assertThat(dispatched, is(equalTo(Collections.singletonList(task))));
+    }
+
+    @Test
+    public void beginBeforeDispatchKeepsTasksQueued() throws Exception {
+        final Runnable task = mock(Runnable.class);
+        final int first = counter.begin("First");
+        counter.runWhenIdle(task);
+        counter.end(first);
+        final int second = counter.begin("Second");
+        scheduler.runDue();
+        verify(task, never()).run();
+
+        counter.end(second);
+        scheduler.runDue();
+        verify(task).run();
+    }
+
+    @Test
+    public void endWithoutBeginThrows() throws Exception {
+        try {
+            counter.resolveToken("Unbalanced");
+            fail("Unbalanced end did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(equalTo("Animation 'Unbalanced' ended more than once in Test")));
+        }
+    }
+
+    @Test
+    public void forceEndAbsorbsLateEnd() throws Exception {
+        assertThat(counter.forceEnd(ActivityCounter.NO_TOKEN), is(false));
+
+        final int token = counter.begin("Stuck");
+        assertThat(counter.forceEnd(token), is(true));
+        assertThat(counter.getActiveCount(), is(equalTo(0)));
+
+        assertThat(counter.resolveToken("Stuck"), is(equalTo(token)));
+        assertThat(counter.end(token), is(false));
+        assertThat(counter.getActiveCount(), is(equalTo(0)));
+        assertThat(counter.getForcedEndCount(), is(equalTo(0)));
+
+        try {
+            counter.resolveToken("Stuck");
+            fail("Second late end did not throw");
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void forceEndOnlyAbsorbsItsOwnEnd() throws Exception {
+        final Runnable task = mock(Runnable.class);
+        final int stuck = counter.begin("Animation");
+        final int live = counter.begin("Animation");
+        counter.runWhenIdle(task);
+
+        assertThat(counter.forceEnd(stuck), is(true));
+        assertThat(counter.resolveToken("Animation"), is(equalTo(live)));
+        assertThat(counter.end(live), is(true));
+        assertThat(counter.getActiveCount(), is(equalTo(0)));
+
+        scheduler.runDue();
+        verify(task).run();
+
+        assertThat(counter.resolveToken("Animation"), is(equalTo(stuck)));
+        assertThat(counter.end(stuck), is(false));
+    }
+
+    @Test
+    public void forcedEndsAreBounded() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            counter.forceEnd(counter.begin("Never ends"));
+        }
+        assertThat(counter.getForcedEndCount() < 100, is(true));
+        assertThat(counter.getActiveCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void pausedCounterIsNotIdle() throws Exception {
+        final Runnable task = mock(Runnable.class);
+        counter.pause();
+        assertThat(counter.isIdle(), is(false));
+        counter.runWhenIdle(task);
+        scheduler.runDue();
+        verify(task, never()).run();
+
+        counter.resume();
+        assertThat(counter.isIdle(), is(true));
+        scheduler.runDue();
+        verify(task).run();
+    }
+
+    @Test
+    public void pauseSuppressesPendingDispatch() throws Exception {
+        final ActivityCounter.Listener listener = mock(ActivityCounter.Listener.class);
+        final ActivityCounter counter = new ActivityCounter("Test", scheduler, listener);
+        final int token = counter.begin("Animation");
+        counter.runWhenIdle(mock(Runnable.class));
+        counter.end(token);
+        counter.pause();
+        scheduler.runDue();
+        verify(listener, never()).onIdle(anyListOf(Runnable.class));
+        assertThat(counter.getIdleTaskCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void tasksQueuedByTasksWaitForNextIdle() throws Exception {
+        final Runnable inner = mock(Runnable.class);
+        final int first = counter.begin("First");
+        final int[] second = new int[1];
+        counter.runWhenIdle(new Runnable() {
+            @Override
+            public void run() {
+                second[0] = counter.begin("Second");
+                counter.runWhenIdle(inner);
+            }
+        });
+        counter.end(first);
+        scheduler.runDue();
+        verify(inner, never()).run();
+        assertThat(counter.copyIdleTasks(), is(equalTo(Collections.singletonList(inner))));
+
+        counter.end(second[0]);
+        scheduler.runDue();
+        verify(inner).run();
+    }
+}
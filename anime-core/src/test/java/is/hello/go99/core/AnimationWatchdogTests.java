@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class AnimationWatchdogTests {
+    private static final long TIMEOUT = 1000L;
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+
+    @Test
+    public void reportsTimedOutAnimations() throws Exception {
+        final AnimationWatchdog.Listener listener = mock(AnimationWatchdog.Listener.class);
+        final AnimationWatchdog watchdog = new AnimationWatchdog(TIMEOUT, scheduler, scheduler, listener);
+
+        watchdog.onBegin(1, "Stuck");
+        watchdog.onBegin(2, "Finished");
+        watchdog.onEnd(2);
+        assertThat(watchdog.getCount(), is(equalTo(1)));
+
+        scheduler.advance(TIMEOUT / 2);
+        verify(listener, never()).onAnimationTimedOut(anyInt(), anyString(), anyLong());
+
+        scheduler.advance(TIMEOUT / 2);
+        verify(listener).onAnimationTimedOut(1, "Stuck", TIMEOUT);
+        assertThat(watchdog.getCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void sameNamesAreWatchedByToken() throws Exception {
+        final AnimationWatchdog.Listener listener = mock(AnimationWatchdog.Listener.class);
+        final AnimationWatchdog watchdog = new AnimationWatchdog(TIMEOUT, scheduler, scheduler, listener);
+
+        watchdog.onBegin(1, "Animation");
+        scheduler.advance(TIMEOUT / 2);
+        watchdog.onBegin(2, "Animation");
+        watchdog.onEnd(1);
+
+        scheduler.advance(TIMEOUT / 2);
+        verify(listener, never()).onAnimationTimedOut(anyInt(), anyString(), anyLong());
+
+        scheduler.advance(TIMEOUT / 2);
+        verify(listener).onAnimationTimedOut(2, "Animation", TIMEOUT);
+    }
+
+    @Test
+    public void ignoresTimeSpentPaused() throws Exception {
+        final AnimationWatchdog.Listener listener = mock(AnimationWatchdog.Listener.class);
+        final AnimationWatchdog watchdog = new AnimationWatchdog(TIMEOUT, scheduler, scheduler, listener);
+
+        watchdog.onBegin(1, "Paused");
+        watchdog.pause();
+        scheduler.advance(TIMEOUT * 2);
+        watchdog.resume();
+
+        scheduler.advance(TIMEOUT - 1);
+        verify(listener, never()).onAnimationTimedOut(anyInt(), anyString(), anyLong());
+        assertThat(watchdog.getCount(), is(equalTo(1)));
+
+        scheduler.advance(1);
+        verify(listener).onAnimationTimedOut(1, "Paused", TIMEOUT);
+
+        watchdog.onBegin(2, "Stopped");
+        watchdog.stop();
+        assertThat(scheduler.getScheduledCount(), is(equalTo(0)));
+        assertThat(watchdog.getCount(), is(equalTo(0)));
+    }
+}
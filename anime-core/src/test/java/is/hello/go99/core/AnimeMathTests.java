@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AnimeMathTests {
+    @Test
+    public void calculateDuration() throws Exception {
+        assertThat(AnimeMath.calculateDuration(0f, 1000f, 150L, 350L), is(150L));
+        assertThat(AnimeMath.calculateDuration(500f, 1000f, 150L, 350L), is(350L));
+        assertThat(AnimeMath.calculateDuration(500f, 1000f, 150L, 1500L), is(1000L));
+        assertThat(AnimeMath.calculateDuration(5000f, 1000f, 150L, 350L), is(150L));
+    }
+
+    @Test
+    public void interpolateFloats() throws Exception {
+        assertThat(AnimeMath.interpolateFloats(0.00f, -1f, 1f), is(-1f));
+        assertThat(AnimeMath.interpolateFloats(0.25f, -1f, 1f), is(-0.5f));
+        assertThat(AnimeMath.interpolateFloats(0.50f, -1f, 1f), is(0f));
+        assertThat(AnimeMath.interpolateFloats(0.75f, -1f, 1f), is(0.5f));
+        assertThat(AnimeMath.interpolateFloats(1.00f, -1f, 1f), is(1f));
+
+        final float[] start = { 0f, 10f, -10f };
+        final float[] end = { 1f, 20f, 10f };
+        final float[] destination = new float[3];
+        AnimeMath.interpolateFloats(0.5f, start, end, destination, 1, 2);
+        assertThat(destination[0], is(0f));
+        assertThat(destination[1], is(15f));
+        assertThat(destination[2], is(0f));
+
+        // The destination may alias a source array.
+        AnimeMath.interpolateFloats(0f, start, end, start, 0, 3);
+        assertThat(start, is(equalTo(new float[] { 0f, 10f, -10f })));
+    }
+
+    @Test
+    public void interpolateInts() throws Exception {
+        assertThat(AnimeMath.interpolateInts(0f, 10, 20), is(equalTo(10)));
+        assertThat(AnimeMath.interpolateInts(0.55f, 10, 20), is(equalTo(15)));
+        assertThat(AnimeMath.interpolateInts(1f, 10, 20), is(equalTo(20)));
+        assertThat(AnimeMath.interpolateInts(0.55f, 20, 10), is(equalTo(15)));
+    }
+
+    @Test
+    public void interpolateColors() throws Exception {
+        assertThat(AnimeMath.interpolateColors(0f, 0xff000000, 0xffffffff), is(0xff000000));
+        assertThat(AnimeMath.interpolateColors(0.25f, 0xff000000, 0xffffffff), is(0xff3f3f3f));
+        assertThat(AnimeMath.interpolateColors(0.5f, 0xff000000, 0xffffffff), is(0xff7f7f7f));
+        assertThat(AnimeMath.interpolateColors(0.75f, 0xff000000, 0xffffffff), is(0xffbfbfbf));
+        assertThat(AnimeMath.interpolateColors(1f, 0xff000000, 0xffffffff), is(0xffffffff));
+
+        final int[] colors = { 0xff000000, 0xffff0000 };
+        AnimeMath.interpolateColors(0.5f, colors, new int[] { 0xffffffff, 0xff0000ff },
+                                    colors, 0, 2);
+        assertThat(colors[0], is(0xff7f7f7f));
+        assertThat(colors[1], is(0xff80007f));
+    }
+
+    @Test
+    public void interpolateColorsLinear() throws Exception {
+        assertThat(AnimeMath.interpolateColorsLinear(0f, 0xff000000, 0xffffffff), is(0xff000000));
+        assertThat(AnimeMath.interpolateColorsLinear(1f, 0xff000000, 0xffffffff), is(0xffffffff));
+
+        // The linear light midpoint between black and white is much lighter than in sRGB.
+        assertThat(AnimeMath.interpolateColorsLinear(0.5f, 0xff000000, 0xffffffff), is(0xffbbbbbb));
+
+        // Every channel value survives a round trip.
+        for (int channel = 0; channel < 256; channel++) {
+            final int color = 0xff000000 | channel;
+            assertThat(AnimeMath.interpolateColorsLinear(0f, color, 0xffffffff), is(color));
+        }
+    }
+
+    @Test
+    public void interpolateColorsLinearPremultiplied() throws Exception {
+        assertThat(AnimeMath.interpolateColorsLinearPremultiplied(0.5f, 0x00000000, 0x00ffffff),
+                   is(0));
+        assertThat(AnimeMath.interpolateColorsLinearPremultiplied(0.5f, 0x00000000, 0xffffffff),
+                   is(0x80ffffff));
+
+        // A transparent start color contributes nothing to the color channels.
+        final int fadeIn = AnimeMath.interpolateColorsLinearPremultiplied(0.5f, 0x00ff0000, 0xff0000ff);
+        assertThat(fadeIn & 0x00ffffff, is(0x0000ff));
+        assertThat(fadeIn >>> 24, is(0x80));
+    }
+
+    @Test
+    public void interpolateColorsLinearPremultipliedRoundTrips() throws Exception {
+        // Fractions of exactly 0 and 1 are returned early, so also check fractions just inside
+        // them. Every gray must survive at every alpha, including those too transparent to
+        // un-premultiply without care.
+        final float nearStart = 1e-4f,
+                    nearEnd = 1f - 1e-4f;
+        for (int alpha = 1; alpha < 256; alpha++) {
+            for (int channel = 0; channel < 256; channel++) {
+                final int color = alpha << 24 | channel << 16 | channel << 8 | channel;
+                final int opposite = alpha << 24 | (0xffffff - (color & 0xffffff));
+                assertThat(AnimeMath.interpolateColorsLinearPremultiplied(0f, color, 0xff000000),
+                           is(color));
+                assertThat(AnimeMath.interpolateColorsLinearPremultiplied(1f, 0x00000000, color),
+                           is(color));
+                assertThat(AnimeMath.interpolateColorsLinearPremultiplied(nearStart, color, 0x00000000),
+                           is(color));
+                assertThat(AnimeMath.interpolateColorsLinearPremultiplied(nearEnd, 0x00000000, color),
+                           is(color));
+                assertThat(AnimeMath.interpolateColorsLinearPremultiplied(nearStart, color, opposite),
+                           is(color));
+                assertThat(AnimeMath.interpolateColorsLinearPremultiplied(nearEnd, opposite, color),
+                           is(color));
+            }
+        }
+    }
+
+    @Test
+    public void interpolateColorsLinearPremultipliedLowAlphaMidpoint() throws Exception {
+        // Alpha: (0x20 + 0x40) / 2 = 0x30.
+        // Red: premultiplied 4095 * 0x20/0xff halves to 1/3 of 4095 once divided by 0x30/0xff.
+        //      sRGB of linear 1/3 is 1.055 * (1/3)^(1/2.4) - 0.055 = 0.6125, 0.6125 * 255 = 0x9c.
+        // Blue: 4095 * 0x40/0xff halves to 2/3 of 4095 once divided by 0x30/0xff.
+        //      sRGB of linear 2/3 is 1.055 * (2/3)^(1/2.4) - 0.055 = 0.8360, 0.8360 * 255 = 0xd5.
+        assertThat(AnimeMath.interpolateColorsLinearPremultiplied(0.5f, 0x20ff0000, 0x400000ff),
+                   is(0x309c00d5));
+    }
+
+    @Test
+    public void bulkRangeChecks() throws Exception {
+        try {
+            AnimeMath.interpolateFloats(0.5f, new float[2], new float[2], new float[1], 0, 2);
+            fail("Out of range interpolation did not throw");
+        } catch (ArrayIndexOutOfBoundsException ignored) {
+        }
+
+        try {
+            AnimeMath.interpolateColorsLinear(0.5f, new int[2], new int[2], new int[2], -1, 1, false);
+            fail("Negative offset did not throw");
+        } catch (ArrayIndexOutOfBoundsException ignored) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A clock and scheduler whose time only moves when a test advances it.
+ */
+public class ManualScheduler implements Clock, Scheduler {
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<Long> runAt = new ArrayList<>();
+    private long now = 0L;
+
+    @Override
+    public long uptimeMillis() {
+        return now;
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMillis) {
+        tasks.add(task);
+        runAt.add(now + delayMillis);
+    }
+
+    @Override
+    public void cancel(Runnable task) {
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            if (tasks.get(i) == task) {
+                tasks.remove(i);
+                runAt.remove(i);
+            }
+        }
+    }
+
+    /**
+     * @return The number of tasks waiting to run.
+     */
+    public int getScheduledCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Moves time forward, running every task that becomes due in the order it was scheduled.
+     *
+     * @param millis How far to move time forward.
+     */
+    public void advance(long millis) {
+        final long target = now + millis;
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < tasks.size(); i++) {
+                if (runAt.get(i) <= target && (next == -1 || runAt.get(i) < runAt.get(next))) {
+                    next = i;
+                }
+            }
+            if (next == -1) {
+                break;
+            }
+
+            this.now = Math.max(now, runAt.get(next));
+            final Runnable task = tasks.remove(next);
+            runAt.remove(next);
+            task.run();
+        }
+        this.now = target;
+    }
+
+    /**
+     * Runs every task that is due without moving time forward.
+     */
+    public void runDue() {
+        advance(0L);
+    }
+}
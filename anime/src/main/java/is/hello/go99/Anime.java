@@ -15,14 +15,26 @@
 */
 package is.hello.go99;
 
+import android.annotation.SuppressLint;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+import android.provider.Settings;
 import android.support.annotation.NonNull;
 import android.view.View;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 
+import java.io.PrintWriter;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
+import is.hello.go99.animators.AnimatorContext;
+import is.hello.go99.animators.AnimatorTrace;
+import is.hello.go99.core.AnimeMath;
+
 public class Anime {
     /**
      * For animations that will be run in the middle of a user interaction
@@ -75,8 +87,46 @@ public class Anime {
      * @return A duration for use with an Animator.
      */
     public static long calculateDuration(float velocity, float area) {
-        long rawDuration = (long) (area / velocity) * 1000 / 2;
-        return Math.max(Anime.DURATION_FAST, Math.min(Anime.DURATION_SLOW, rawDuration));
+        return AnimeMath.calculateDuration(velocity, area, DURATION_FAST, DURATION_SLOW);
+    }
+
+    //endregion
+
+
+    //region System Settings
+
+    /**
+     * Returns whether or not the user has opted out of animations, either by setting the
+     * animator duration scale developer option to zero, or by enabling battery saver.
+     *
+     * @param context The context to read system settings through.
+     * @return true if animations should be applied instantly; false otherwise.
+     *
+     * @see is.hello.go99.animators.AnimatorContext#updateInstantMode(Context)
+     */
+    @SuppressLint("InlinedApi")
+    @SuppressWarnings("deprecation")
+    public static boolean areSystemAnimationsDisabled(@NonNull Context context) {
+        final ContentResolver contentResolver = context.getContentResolver();
+        final float durationScale;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            durationScale = Settings.Global.getFloat(contentResolver,
+                                                     Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else {
+            durationScale = Settings.System.getFloat(contentResolver,
+                                                     Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+        }
+        if (durationScale == 0f) {
+            return true;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            final PowerManager powerManager =
+                    (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+            return (powerManager != null && powerManager.isPowerSaveMode());
+        }
+
+        return false;
     }
 
     //endregion
@@ -95,7 +145,7 @@ public class Anime {
      *         {@code fraction} parameter.
      */
     public static float interpolateFloats(float fraction, float start, float end) {
-        return start + fraction * (end - start);
+        return AnimeMath.interpolateFloats(fraction, start, end);
     }
 
     /**
@@ -109,20 +159,113 @@ public class Anime {
      *         {@code fraction} parameter.
      */
     public static int interpolateColors(float fraction, int startColor, int endColor) {
-        int startA = (startColor >> 24) & 0xff;
-        int startR = (startColor >> 16) & 0xff;
-        int startG = (startColor >> 8) & 0xff;
-        int startB = startColor & 0xff;
+        return AnimeMath.interpolateColors(fraction, startColor, endColor);
+    }
+
+    /**
+     * Bulk form of {@link #interpolateFloats(float, float, float)}. Interpolates
+     * a range of values from two arrays, writing the results into a third array.
+     * <p>
+     * The destination array may be the same instance as either source array.
+     *
+     * @param fraction The fraction from the starting to the ending values.
+     * @param start The start values.
+     * @param end The end values.
+     * @param destination The array to write interpolated values into.
+     * @param offset The index of the first value to interpolate.
+     * @param length The number of values to interpolate.
+     * @throws ArrayIndexOutOfBoundsException if the range exceeds the bounds of any array.
+     */
+    public static void interpolateFloats(float fraction,
+                                         @NonNull float[] start,
+                                         @NonNull float[] end,
+                                         @NonNull float[] destination,
+                                         int offset,
+                                         int length) {
+        AnimeMath.interpolateFloats(fraction, start, end, destination, offset, length);
+    }
+
+    /**
+     * Bulk form of {@link #interpolateColors(float, int, int)}. Interpolates
+     * a range of colors from two arrays, writing the results into a third array.
+     * <p>
+     * The destination array may be the same instance as either source array.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColors The start colors.
+     * @param endColors The end colors.
+     * @param destination The array to write interpolated colors into.
+     * @param offset The index of the first color to interpolate.
+     * @param length The number of colors to interpolate.
+     * @throws ArrayIndexOutOfBoundsException if the range exceeds the bounds of any array.
+     */
+    public static void interpolateColors(float fraction,
+                                         @NonNull int[] startColors,
+                                         @NonNull int[] endColors,
+                                         @NonNull int[] destination,
+                                         int offset,
+                                         int length) {
+        AnimeMath.interpolateColors(fraction, startColors, endColors, destination, offset, length);
+    }
+
+    /**
+     * Interpolates between two colors in linear light instead of sRGB space.
+     * Gradients produced by this method do not have the muddy midpoints of
+     * {@link #interpolateColors(float, int, int)}, at a comparable cost.
+     * <p>
+     * The alpha channel is interpolated linearly.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColor The start color.
+     * @param endColor The end color.
+     * @return A linear light interpolation between the start and end colors,
+     *         given the {@code fraction} parameter.
+     */
+    public static int interpolateColorsLinear(float fraction, int startColor, int endColor) {
+        return AnimeMath.interpolateColorsLinear(fraction, startColor, endColor);
+    }
 
-        int endA = (endColor >> 24) & 0xff;
-        int endR = (endColor >> 16) & 0xff;
-        int endG = (endColor >> 8) & 0xff;
-        int endB = endColor & 0xff;
+    /**
+     * Interpolates between two colors in linear light with premultiplied alpha.
+     * <p>
+     * Use this variant when the start and end colors have different alpha values.
+     * Fading from a transparent color into an opaque one will not pick up the
+     * color channels of the transparent end point along the way.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColor The start color.
+     * @param endColor The end color.
+     * @return A premultiplied linear light interpolation between the start and end
+     *         colors, given the {@code fraction} parameter. The result is not premultiplied.
+     */
+    public static int interpolateColorsLinearPremultiplied(float fraction, int startColor, int endColor) {
+        return AnimeMath.interpolateColorsLinearPremultiplied(fraction, startColor, endColor);
+    }
 
-        return (startA + (int)(fraction * (endA - startA))) << 24 |
-                (startR + (int)(fraction * (endR - startR))) << 16 |
-                (startG + (int)(fraction * (endG - startG))) << 8 |
-                (startB + (int)(fraction * (endB - startB)));
+    /**
+     * Bulk form of {@link #interpolateColorsLinear(float, int, int)} and
+     * {@link #interpolateColorsLinearPremultiplied(float, int, int)}.
+     * <p>
+     * The destination array may be the same instance as either source array.
+     *
+     * @param fraction The fraction from the starting to the ending colors.
+     * @param startColors The start colors.
+     * @param endColors The end colors.
+     * @param destination The array to write interpolated colors into.
+     * @param offset The index of the first color to interpolate.
+     * @param length The number of colors to interpolate.
+     * @param premultiplied Whether or not to interpolate with premultiplied alpha.
+     * @throws ArrayIndexOutOfBoundsException if the range exceeds the bounds of any array.
+     */
+    public static void interpolateColorsLinear(float fraction,
+                                               @NonNull int[] startColors,
+                                               @NonNull int[] endColors,
+                                               @NonNull int[] destination,
+                                               int offset,
+                                               int length,
+                                               boolean premultiplied) {
+        AnimeMath.interpolateColorsLinear(fraction, startColors, endColors, destination,
+                                          offset, length, premultiplied);
     }
 
     //endregion
@@ -156,6 +299,24 @@ public class Anime {
         return animatingViews.contains(view);
     }
 
+    /**
+     * Adds every view that is currently animating to a given collection.
+     *
+     * @param outViews The collection to add the views to.
+     */
+    public static void getAnimatingViews(@NonNull Collection<? super View> outViews) {
+        for (final View view : animatingViews) {
+            outViews.add(view);
+        }
+    }
+
+    /**
+     * @return The number of views that are currently animating.
+     */
+    public static int getAnimatingViewCount() {
+        return animatingViews.size();
+    }
+
     /**
      * Adds a view to the currently animating set.
      *
@@ -177,6 +338,29 @@ public class Anime {
     //endregion
 
 
+    //region Diagnostics
+
+    /**
+     * Prints the views that are currently animating, followed by the
+     * {@link AnimatorTrace}, in a human readable form. Suitable for use
+     * from {@code Activity#dump} alongside {@link AnimatorContext#dump(PrintWriter)}.
+     *
+     * @param writer The writer.
+     */
+    public static void dump(@NonNull PrintWriter writer) {
+        writer.println("Anime:");
+        writer.println("  animating views: " + animatingViews.size());
+        for (final View view : animatingViews) {
+            writer.println("    " + view);
+        }
+        writer.flush();
+
+        AnimatorTrace.dump(writer);
+    }
+
+    //endregion
+
+
     /**
      * Not meant to be instantiated.
      */
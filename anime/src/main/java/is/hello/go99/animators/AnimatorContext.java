@@ -18,190 +18,1206 @@ package is.hello.go99.animators;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
-import android.os.Handler;
-import android.os.Looper;
-import android.os.Message;
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
 import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.TextUtils;
 import android.util.Log;
 import android.view.View;
 
+import java.io.PrintWriter;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import is.hello.go99.Anime;
+import is.hello.go99.core.ActivityCounter;
+import is.hello.go99.core.AnimationWatchdog;
 
 public class AnimatorContext {
     /**
-     * Whether or not stack-traces should be printed when {@link #beginAnimation(String)}
-     * and {@link #endAnimation(String)} are called. Provided for debugging dangling animations.
+     * Whether or not events recorded into the {@link AnimatorTrace} should also be logged
+     * as they occur. Provided for debugging dangling animations.
      */
     public static boolean DEBUG = false;
 
-    private static final int MSG_IDLE = 0;
+    /**
+     * Whether or not {@code android.os.Trace} sections should be emitted around transactions,
+     * multi-animator starts, and idle tasks, along with a counter of active animations for
+     * each context. Provided for systrace and perfetto captures. Requires Jelly Bean MR2.
+     */
+    public static boolean SYSTRACE = false;
+
+    /**
+     * The default maximum number of hardware layers that
+     * animators within a context may have live at once.
+     */
+    public static final int DEFAULT_HARDWARE_LAYER_BUDGET = 8;
+
+    /**
+     * The default animation budget. Places no limit on the
+     * number of transaction animators that may run at once.
+     */
+    public static final int UNLIMITED_ANIMATION_BUDGET = Integer.MAX_VALUE;
+
+    /**
+     * The number of frames that must be dropped while animating
+     * before adaptive quality degrades by one level.
+     */
+    public static final int DROPPED_FRAMES_TO_DEGRADE = 6;
+
+    /**
+     * The number of consecutive smooth frames after which
+     * adaptive quality forgets previously dropped frames.
+     */
+    public static final int SMOOTH_FRAMES_TO_FORGIVE = 30;
+
+    /**
+     * The amount of time without dropped frames after
+     * which adaptive quality recovers by one level.
+     */
+    public static final long QUALITY_RECOVERY_MILLIS = 2000L;
+
+    /**
+     * The watchdog timeout that disables the watchdog.
+     */
+    public static final long WATCHDOG_DISABLED = 0L;
 
     private final String name;
-    private final List<Runnable> runOnIdle = new ArrayList<>();
+    private final int traceId = AnimatorTrace.nextContextId();
+    private final String systraceCounterName;
+    private final ActivityCounter activityCounter =
+            new ActivityCounter(this, new MainThreadScheduler(), new ActivityCounter.Listener() {
+                @Override
+                public void onIdle(@NonNull List<Runnable> tasks) {
+                    runIdleTasks(tasks);
+                }
+            });
 
-    private int activeAnimationCount = 0;
+    private final Set<Animator> trackedAnimators =
+            Collections.newSetFromMap(new WeakHashMap<Animator, Boolean>());
+    private boolean instanceTrackingEnabled = false;
+    private final Set<Transaction> pendingTransactions =
+            Collections.newSetFromMap(new WeakHashMap<Transaction, Boolean>());
     private @NonNull AnimatorTemplate transactionTemplate = AnimatorTemplate.DEFAULT;
+    private int hardwareLayerBudget = DEFAULT_HARDWARE_LAYER_BUDGET;
+    private int activeHardwareLayerCount = 0;
+    private int animationBudget = UNLIMITED_ANIMATION_BUDGET;
+    private @BudgetPolicy int budgetPolicy = BUDGET_POLICY_END_OLDEST;
+    private final List<Transaction> runningTransactions = new ArrayList<>();
+    private final List<MultiAnimator> runningMultiAnimators = new ArrayList<>();
+    private int runningTransactionAnimatorCount = 0;
+    private int overBudgetCount = 0;
+    private boolean instantMode = false;
+    private boolean startBatchingEnabled = false;
+    private @Nullable StartScheduler startScheduler;
+    private boolean adaptiveQualityEnabled = false;
+    private @Nullable FrameMonitor frameMonitor;
+    private @QualityLevel int qualityLevel = QUALITY_FULL;
+    private int droppedFrameCount = 0;
+    private int smoothFrameCount = 0;
+    private long lastDroppedFrameAt = 0L;
+    private @Nullable AnimationWatchdog watchdog;
+    private boolean watchdogForcesEnd = false;
+    private @Nullable WatchdogListener watchdogListener;
+    private int timedOutAnimationCount = 0;
+    private @Nullable IdleTaskProfiler idleTaskProfiler;
+    private @Nullable PerformanceRecorder performanceRecorder;
+    private int totalDroppedFrameCount = 0;
 
-    private final Handler idleHandler = new Handler(Looper.getMainLooper(), new Handler.Callback() {
-        @Override
-        public boolean handleMessage(Message message) {
-            if (message.what == MSG_IDLE) {
-                // Guards against AnimatorContextTests#runOnIdleConcurrentModification()
-                final ArrayList<Runnable> runOnIdleCopy = new ArrayList<>(runOnIdle);
-                runOnIdle.clear();
-
-                for (final Runnable task : runOnIdleCopy) {
-                    task.run();
+    /**
+     * Constructs an animator context with a given name.
+     * @param name  The name used for {@link #toString()}.
+     */
+    public AnimatorContext(@NonNull String name) {
+        this.name = name;
+        this.systraceCounterName = "Active animations: " + name;
+
+        trace(AnimatorTrace.EVENT_CONTEXT_CREATED, name, 0);
+    }
+
+
+    //region Listeners
+
+    /**
+     * Posts a unit of work to run when the context is idle.
+     * <p>
+     * The task will be immediately executed if
+     * the animation context is currently idle.
+     * Paused contexts are never idle.
+     *
+     * @param task The task.
+     */
+    public void runWhenIdle(@NonNull Runnable task) {
+        trace(AnimatorTrace.EVENT_RUN_WHEN_IDLE, null, activityCounter.getActiveCount());
+        activityCounter.runWhenIdle(task);
+    }
+
+    /**
+     * Schedules an animator to start when the animator context is idle next.
+     * @param animator  The animator to start.
+     */
+    public void startWhenIdle(final @NonNull Animator animator) {
+        runWhenIdle(new Runnable() {
+            @Override
+            public void run() {
+                animator.start();
+            }
+        });
+    }
+
+    //endregion
+
+
+    //region Active Animations
+
+    private void trace(@AnimatorTrace.EventType int type, @Nullable String token, int value) {
+        AnimatorTrace.record(type, traceId, token, value);
+
+        if (SYSTRACE && (type == AnimatorTrace.EVENT_BEGIN_ANIMATION ||
+                type == AnimatorTrace.EVENT_END_ANIMATION)) {
+            Systrace.setCounter(systraceCounterName, value);
+        }
+
+        if (ChromeTraceRecorder.isRecording()) {
+            final long now = System.nanoTime();
+            if (type == AnimatorTrace.EVENT_BEGIN_ANIMATION || type == AnimatorTrace.EVENT_END_ANIMATION) {
+                //noinspection ConstantConditions
+                ChromeTraceRecorder.record(type == AnimatorTrace.EVENT_BEGIN_ANIMATION
+                                                   ? ChromeTraceRecorder.PHASE_ASYNC_BEGIN
+                                                   : ChromeTraceRecorder.PHASE_ASYNC_END,
+                                           traceId, name, token, now, 0L, 0);
+                ChromeTraceRecorder.record(ChromeTraceRecorder.PHASE_COUNTER, traceId, name,
+                                           "Active animations", now, 0L, value);
+            } else {
+                ChromeTraceRecorder.record(ChromeTraceRecorder.PHASE_INSTANT, traceId, name,
+                                           AnimatorTrace.getEventName(type), now, 0L, value);
+            }
+        }
+
+        if (DEBUG) {
+            Log.i(getClass().getSimpleName(), AnimatorTrace.getEventName(type) + " #" + traceId +
+                    (token != null ? " ('" + token + "')" : "") + " [" + value + "]");
+        }
+    }
+
+    private void recordSpan(@NonNull String spanName, long startedAt) {
+        ChromeTraceRecorder.record(ChromeTraceRecorder.PHASE_COMPLETE, traceId, name, spanName,
+                                   startedAt, System.nanoTime() - startedAt, 0);
+    }
+
+    /**
+     * @return The number of animations currently active within the context.
+     */
+    int getActiveAnimationCount() {
+        return activityCounter.getActiveCount();
+    }
+
+    /**
+     * @return The number of tasks waiting for the context to become idle.
+     */
+    int getIdleTaskCount() {
+        return activityCounter.getIdleTaskCount();
+    }
+
+    /**
+     * Increment the active animation counter, potentially
+     * bringing the animator context into the active state.
+     * <p>
+     * Animation tracking is implemented as a counter instead
+     * of tracking animator instances to allow interactive
+     * transitions to be treated as active animations within
+     * a context. E.g. this can be used to prevent unwanted
+     * animations from running when a user is swiping between
+     * elements on a screen.
+     *
+     * @param name The name of the animation, used for debugging.
+     * @return A token identifying the animation, for use with {@link #endAnimation(int)}.
+     */
+    public int beginAnimation(@NonNull String name) {
+        final int token = activityCounter.begin(name);
+
+        trace(AnimatorTrace.EVENT_BEGIN_ANIMATION, name, activityCounter.getActiveCount());
+
+        if (watchdog != null) {
+            watchdog.onBegin(token, name);
+        }
+
+        if (frameMonitor != null && !activityCounter.isPaused()) {
+            frameMonitor.start();
+        }
+
+        return token;
+    }
+
+    /**
+     * Decrement the active animation counter, potentially
+     * bringing the animator context out of the active state.
+     * If the counter reaches zero with this call, on the next
+     * looper cycle any queued idle tasks will be executed.
+     * <p>
+     * Calling {@link #beginAnimation(String)} before the next looper
+     * cycle will cause those tasks to remain queued.
+     *
+     * Prefer {@link #endAnimation(int)} where the token is available. An end identified
+     * only by name applies to the most recent active animation with that name.
+     *
+     * @param name The name of the animation, used for debugging.
+     *
+     * @see #beginAnimation(String) for rationale behind this API design.
+     */
+    public void endAnimation(@NonNull String name) {
+        endAnimation(activityCounter.resolveToken(name));
+    }
+
+    /**
+     * Decrement the active animation counter on behalf of the animation a token identifies.
+     * Ends of animations the watchdog has already forced to end are ignored.
+     *
+     * @param token The token returned by {@link #beginAnimation(String)}.
+     *
+     * @see #endAnimation(String)
+     */
+    public void endAnimation(int token) {
+        final String name = activityCounter.getName(token);
+        if (!activityCounter.end(token)) {
+            // The watchdog has already ended this animation.
+            return;
+        }
+
+        if (watchdog != null) {
+            watchdog.onEnd(token);
+        }
+
+        onAnimationEnded(name);
+    }
+
+    private void onAnimationEnded(@NonNull String name) {
+        final int activeAnimationCount = activityCounter.getActiveCount();
+
+        trace(AnimatorTrace.EVENT_END_ANIMATION, name, activeAnimationCount);
+
+        if (activeAnimationCount == 0 && frameMonitor != null) {
+            frameMonitor.stop();
+        }
+    }
+
+    private void runIdleTasks(@NonNull List<Runnable> tasks) {
+        trace(AnimatorTrace.EVENT_IDLE, null, tasks.size());
+
+        final boolean systrace = SYSTRACE;
+        if (systrace) {
+            Systrace.beginSection(Systrace.IDLE);
+        }
+        try {
+            for (final Runnable task : tasks) {
+                runIdleTask(task);
+            }
+        } finally {
+            if (systrace) {
+                Systrace.endSection();
+            }
+        }
+    }
+
+    /**
+     * Binds the animator context to the begin/end animation events of a given animator.
+     * <p>
+     * <em>Important:</em> Bindings are one-shot. So if you plan on re-using a
+     * bound animator, you will need to bind it at the beginning of each use.
+     *
+     * @param animator  The animator to bind.
+     * @param name      The name of the animator.
+     * @param <T>       The type of the animator.
+     *
+     * @throws IllegalArgumentException if {@code animator} is annotated {@link NotBindable}.
+     * @see NotBindable
+     */
+    public <T extends Animator> void bind(@NonNull T animator, @NonNull String name) {
+        if (animator.getClass().getAnnotation(NotBindable.class) != null) {
+            throw new IllegalArgumentException("bind cannot be used with @NotBindable class " + animator.getClass());
+        }
+
+        animator.addListener(new BindAnimatorListener(name, this));
+        trackAnimator(animator);
+    }
+
+    //endregion
+
+
+    //region Tracking
+
+    /**
+     * Specifies whether or not the context should track the multi-animators and bound
+     * animators it owns, along with transactions that are waiting to start, so that they
+     * can be stopped by {@link #cancelAll()} and {@link #endAll()}. Disabled by default.
+     * <p>
+     * Animators are tracked from the moment they're bound or started, and are forgotten
+     * as soon as they end. Tracking uses weak references, so it never prevents an animator
+     * from being collected. Only animators bound while tracking is enabled are tracked.
+     * <p>
+     * Multi-animators and running transactions are paused by {@link #pause()} whether or
+     * not tracking is enabled. Animators bound through {@link #bind(Animator, String)}
+     * outside of a transaction are only paused if they're tracked.
+     *
+     * @param instanceTrackingEnabled Whether or not animators and transactions should be tracked.
+     */
+    public void setInstanceTrackingEnabled(boolean instanceTrackingEnabled) {
+        this.instanceTrackingEnabled = instanceTrackingEnabled;
+        if (!instanceTrackingEnabled) {
+            trackedAnimators.clear();
+            pendingTransactions.clear();
+        }
+    }
+
+    /**
+     * @return Whether or not the context tracks animators and transactions.
+     */
+    public boolean isInstanceTrackingEnabled() {
+        return instanceTrackingEnabled;
+    }
+
+    /**
+     * Cancels every running transaction and every multi-animator waiting to start on the
+     * next frame. If instance tracking is enabled, every tracked animator and every
+     * transaction waiting for the context to become idle is cancelled too. Intended for
+     * use when a scene is torn down.
+     *
+     * @see #setInstanceTrackingEnabled(boolean)
+     */
+    public void cancelAll() {
+        trace(AnimatorTrace.EVENT_CANCEL_ALL, null, activityCounter.getActiveCount());
+
+        for (final Transaction transaction : new ArrayList<>(pendingTransactions)) {
+            transaction.cancel();
+            for (final Animator animator : transaction.pending) {
+                untrackAnimator(animator);
+            }
+        }
+        pendingTransactions.clear();
+
+        for (final Transaction transaction : new ArrayList<>(runningTransactions)) {
+            transaction.cancel();
+        }
+
+        if (startScheduler != null) {
+            for (final MultiAnimator animator : startScheduler.copyPending()) {
+                animator.cancel();
+            }
+        }
+
+        for (final Animator animator : new ArrayList<>(trackedAnimators)) {
+            animator.cancel();
+        }
+    }
+
+    /**
+     * Ends every running transaction and every multi-animator waiting to start on the
+     * next frame, leaving their targets in their final states. If instance tracking is
+     * enabled, every tracked animator is ended too, and transactions waiting for the
+     * context to become idle are applied instantly instead of being started.
+     *
+     * @see #setInstanceTrackingEnabled(boolean)
+     */
+    public void endAll() {
+        trace(AnimatorTrace.EVENT_END_ALL, null, activityCounter.getActiveCount());
+
+        for (final Transaction transaction : new ArrayList<>(pendingTransactions)) {
+            transaction.end();
+        }
+        pendingTransactions.clear();
+
+        for (final Transaction transaction : new ArrayList<>(runningTransactions)) {
+            transaction.end();
+        }
+
+        if (startScheduler != null) {
+            for (final MultiAnimator animator : startScheduler.copyPending()) {
+                animator.end();
+            }
+        }
+
+        for (final Animator animator : new ArrayList<>(trackedAnimators)) {
+            animator.end();
+        }
+    }
+
+    //endregion
+
+
+    //region Pausing
+
+    /**
+     * Pauses every running multi-animator bound to the context, and every running
+     * transaction, including the animators transactions have taken ownership of.
+     * If instance tracking is enabled, every other animator bound through
+     * {@link #bind(Animator, String)} is paused too.
+     * <p>
+     * While paused, the active animation count does not change, and idle tasks are not run.
+     * Multi-animators waiting for a batched start are held until the context is resumed.
+     * Pausing animators other than multi-animators requires KitKat.
+     *
+     * @see #resume()
+     * @see #setInstanceTrackingEnabled(boolean)
+     * @see MultiAnimator#pause()
+     */
+    public void pause() {
+        if (activityCounter.isPaused()) {
+            return;
+        }
+
+        trace(AnimatorTrace.EVENT_PAUSE, null, activityCounter.getActiveCount());
+
+        activityCounter.pause();
+        if (frameMonitor != null) {
+            frameMonitor.stop();
+        }
+        if (watchdog != null) {
+            watchdog.pause();
+        }
+        if (startScheduler != null) {
+            startScheduler.pause();
+        }
+
+        for (final Animator animator : collectPausableAnimators()) {
+            if (animator instanceof MultiAnimator) {
+                ((MultiAnimator) animator).pause();
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+                animator.pause();
+            }
+        }
+    }
+
+    /**
+     * Resumes the animators paused by {@link #pause()}, and runs any
+     * idle tasks that became eligible while the context was paused.
+     */
+    public void resume() {
+        if (!activityCounter.isPaused()) {
+            return;
+        }
+
+        trace(AnimatorTrace.EVENT_RESUME, null, activityCounter.getActiveCount());
+
+        activityCounter.resume();
+        if (watchdog != null) {
+            watchdog.resume();
+        }
+        if (startScheduler != null) {
+            startScheduler.resume();
+        }
+
+        for (final Animator animator : collectPausableAnimators()) {
+            if (animator instanceof MultiAnimator) {
+                ((MultiAnimator) animator).resume();
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+                animator.resume();
+            }
+        }
+
+        if (activityCounter.getActiveCount() > 0 && frameMonitor != null) {
+            frameMonitor.start();
+        }
+    }
+
+    /**
+     * @return Whether or not the context is paused.
+     */
+    public boolean isPaused() {
+        return activityCounter.isPaused();
+    }
+
+    /**
+     * Collects the animators affected by {@link #pause()} and {@link #resume()}. Animators
+     * that belong to more than one source, e.g. a multi-animator owned by a transaction,
+     * are only included once.
+     */
+    private Set<Animator> collectPausableAnimators() {
+        final Set<Animator> animators = new LinkedHashSet<>();
+        animators.addAll(runningMultiAnimators);
+        for (final Transaction transaction : runningTransactions) {
+            animators.add(transaction.toAnimator());
+        }
+        animators.addAll(trackedAnimators);
+        return animators;
+    }
+
+    /**
+     * Adds a multi-animator that has begun running within the context.
+     * Running multi-animators are always known, independent of instance tracking.
+     *
+     * @param animator The multi-animator.
+     */
+    void addRunningAnimator(@NonNull MultiAnimator animator) {
+        runningMultiAnimators.add(animator);
+    }
+
+    /**
+     * Removes a multi-animator that has stopped running within the context.
+     *
+     * @param animator The multi-animator.
+     */
+    void removeRunningAnimator(@NonNull MultiAnimator animator) {
+        runningMultiAnimators.remove(animator);
+    }
+
+    /**
+     * Adds an animator to the context's tracked animators
+     * if instance tracking is enabled.
+     *
+     * @param animator The animator.
+     */
+    void trackAnimator(@NonNull Animator animator) {
+        if (instanceTrackingEnabled) {
+            trackedAnimators.add(animator);
+        }
+    }
+
+    /**
+     * Removes an animator from the context's tracked animators.
+     *
+     * @param animator The animator.
+     */
+    void untrackAnimator(@NonNull Animator animator) {
+        trackedAnimators.remove(animator);
+    }
+
+    /**
+     * @return The number of animators tracked by the context.
+     */
+    int getTrackedAnimatorCount() {
+        return trackedAnimators.size();
+    }
+
+    //endregion
+
+
+    //region Watchdog
+
+    /**
+     * Enables the dangling animation watchdog. Any animation that remains active for longer
+     * than the given timeout is reported to the {@link WatchdogListener}, or logged if there
+     * is no listener. Time spent paused does not count towards the timeout.
+     * <p>
+     * An animation that never ends keeps the context from ever becoming idle, leaving every
+     * task passed to {@link #runWhenIdle(Runnable)} queued. Forcing an end recovers from this
+     * by ending the animation on its behalf. The animation's own call to
+     * {@link #endAnimation(int)}, if it ever comes, is then ignored.
+     * <p>
+     * Animations are matched by the token returned from {@link #beginAnimation(String)},
+     * so a forced end never absorbs the end of another animation with the same name.
+     * Only animations that begin after the watchdog is enabled are watched.
+     *
+     * @param timeoutMillis The timeout, or {@link #WATCHDOG_DISABLED}.
+     * @param forceEnd      Whether or not animations that time out should be ended.
+     */
+    public void setWatchdogTimeout(long timeoutMillis, boolean forceEnd) {
+        if (timeoutMillis < 0L) {
+            throw new IllegalArgumentException("timeoutMillis cannot be negative");
+        }
+
+        if (watchdog != null) {
+            watchdog.stop();
+            this.watchdog = null;
+        }
+
+        this.watchdogForcesEnd = forceEnd;
+        if (timeoutMillis != WATCHDOG_DISABLED) {
+            this.watchdog = new AnimationWatchdog(timeoutMillis, UptimeClock.INSTANCE,
+                                                  new MainThreadScheduler(),
+                                                  new AnimationWatchdog.Listener() {
+                @Override
+                public void onAnimationTimedOut(int token, @NonNull String name, long elapsedMillis) {
+                    onWatchdogTimeout(token, name, elapsedMillis);
                 }
+            });
+            if (activityCounter.isPaused()) {
+                watchdog.pause();
+            }
+        }
+    }
 
-                return true;
+    /**
+     * @return Whether or not the dangling animation watchdog is enabled.
+     */
+    public boolean isWatchdogEnabled() {
+        return (watchdog != null);
+    }
+
+    /**
+     * Sets the listener to report animations that exceed the watchdog timeout to.
+     *
+     * @param watchdogListener The listener, or {@code null} to log timed out animations.
+     */
+    public void setWatchdogListener(@Nullable WatchdogListener watchdogListener) {
+        this.watchdogListener = watchdogListener;
+    }
+
+    /**
+     * @return The number of animations the watchdog has reported.
+     */
+    public int getTimedOutAnimationCount() {
+        return timedOutAnimationCount;
+    }
+
+    /**
+     * Reports a timed out animation, and ends it if the watchdog forces ends.
+     *
+     * @param token         The token identifying the animation.
+     * @param name          The name of the animation.
+     * @param elapsedMillis How long the animation has been active.
+     */
+    void onWatchdogTimeout(int token, @NonNull String name, long elapsedMillis) {
+        this.timedOutAnimationCount++;
+        trace(AnimatorTrace.EVENT_WATCHDOG_TIMEOUT, name, (int) Math.min(elapsedMillis, Integer.MAX_VALUE));
+
+        if (watchdogListener != null) {
+            watchdogListener.onAnimationTimedOut(this, name, elapsedMillis, watchdogForcesEnd);
+        } else {
+            Log.w(getClass().getSimpleName(), "Animation '" + name + "' active for " +
+                    elapsedMillis + "ms in " + toString());
+        }
+
+        if (watchdogForcesEnd && activityCounter.forceEnd(token)) {
+            onAnimationEnded(name);
+        }
+    }
+
+    //endregion
+
+
+    //region Idle Task Profiling
+
+    /**
+     * Sets the profiler that measures each task run when the context becomes idle.
+     * Tasks run immediately by {@link #runWhenIdle(Runnable)} are not profiled.
+     *
+     * @param idleTaskProfiler The profiler, or {@code null} to stop profiling.
+     */
+    public void setIdleTaskProfiler(@Nullable IdleTaskProfiler idleTaskProfiler) {
+        this.idleTaskProfiler = idleTaskProfiler;
+    }
+
+    /**
+     * @return The profiler measuring idle tasks, if any.
+     */
+    public @Nullable IdleTaskProfiler getIdleTaskProfiler() {
+        return idleTaskProfiler;
+    }
+
+    private void runIdleTask(@NonNull Runnable task) {
+        final IdleTaskProfiler profiler = this.idleTaskProfiler;
+        final boolean recording = ChromeTraceRecorder.isRecording();
+        if (profiler == null && !recording) {
+            task.run();
+            return;
+        }
+
+        final long startedAt = System.nanoTime();
+        task.run();
+        final long duration = System.nanoTime() - startedAt;
+
+        if (profiler != null) {
+            profiler.record(this, task, duration);
+        }
+        if (recording) {
+            ChromeTraceRecorder.record(ChromeTraceRecorder.PHASE_COMPLETE, traceId, name,
+                                       task.getClass().getName(), startedAt, duration, 0);
+        }
+    }
+
+    //endregion
+
+
+    //region Performance Recording
+
+    /**
+     * Sets the recorder that logs the performance of each transaction once it completes.
+     * Transactions stopped through {@link Transaction#cancel()} or {@link Transaction#end()},
+     * and transactions applied instantly, are not recorded.
+     * <p>
+     * While a recorder is set, the context monitors frames on Jelly Bean and later
+     * to count the frames dropped by each transaction. The context does not close
+     * the recorder when it's replaced.
+     *
+     * @param performanceRecorder The recorder, or {@code null} to stop recording.
+     */
+    public void setPerformanceRecorder(@Nullable PerformanceRecorder performanceRecorder) {
+        this.performanceRecorder = performanceRecorder;
+        updateFrameMonitor();
+    }
+
+    /**
+     * @return The recorder logging transaction performance, if any.
+     */
+    public @Nullable PerformanceRecorder getPerformanceRecorder() {
+        return performanceRecorder;
+    }
+
+    private void recordTransaction(@NonNull Transaction transaction,
+                                   long startedAt,
+                                   int droppedFramesAtStart) {
+        final PerformanceRecorder recorder = this.performanceRecorder;
+        if (recorder == null || transaction.canceled) {
+            return;
+        }
+
+        final long idleWait = (transaction.queuedAt != 0L) ? startedAt - transaction.queuedAt : 0L;
+        recorder.record(transaction.nameHash, transaction.getAnimatorCount(),
+                        System.nanoTime() - startedAt,
+                        totalDroppedFrameCount - droppedFramesAtStart, idleWait);
+    }
+
+    //endregion
+
+
+    //region Hardware Layers
+
+    /**
+     * Specifies the maximum number of hardware layers animators within the context
+     * may have live at once. Animations started after the budget has been exhausted
+     * run without a layer. Defaults to {@link #DEFAULT_HARDWARE_LAYER_BUDGET}.
+     *
+     * @param hardwareLayerBudget The budget. {@code 0} disables hardware layers.
+     *
+     * @see MultiAnimator#withLayer()
+     * @see #OPTION_HARDWARE_LAYERS
+     */
+    public void setHardwareLayerBudget(int hardwareLayerBudget) {
+        if (hardwareLayerBudget < 0) {
+            throw new IllegalArgumentException("hardwareLayerBudget cannot be negative");
+        }
+
+        this.hardwareLayerBudget = hardwareLayerBudget;
+    }
+
+    /**
+     * @return The maximum number of hardware layers that may be live at once.
+     */
+    public int getHardwareLayerBudget() {
+        return hardwareLayerBudget;
+    }
+
+    /**
+     * @return The number of hardware layers currently live within the context.
+     */
+    public int getActiveHardwareLayerCount() {
+        return activeHardwareLayerCount;
+    }
+
+    /**
+     * Reserves a hardware layer from the context's budget.
+     *
+     * @return true if a layer was reserved; false if the budget is exhausted.
+     */
+    boolean acquireHardwareLayer() {
+        if (activeHardwareLayerCount < hardwareLayerBudget) {
+            this.activeHardwareLayerCount++;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a hardware layer previously reserved
+     * through {@link #acquireHardwareLayer()}.
+     */
+    void releaseHardwareLayer() {
+        if (activeHardwareLayerCount > 0) {
+            this.activeHardwareLayerCount--;
+        }
+    }
+
+    //endregion
+
+
+    //region Animation Budget
+
+    /**
+     * Specifies the maximum number of animators that transactions within the context may
+     * run at once. Each animator added to a transaction counts against the budget until the
+     * transaction completes. When starting a transaction would exceed the budget, the context
+     * applies its {@link BudgetPolicy}. Defaults to {@link #UNLIMITED_ANIMATION_BUDGET}.
+     * <p>
+     * Animators bound to the context outside of a transaction do not count against the budget.
+     *
+     * @param animationBudget The budget. {@code 0} applies every transaction instantly.
+     *
+     * @see #setBudgetPolicy(int)
+     * @see #getOverBudgetCount()
+     */
+    public void setAnimationBudget(int animationBudget) {
+        if (animationBudget < 0) {
+            throw new IllegalArgumentException("animationBudget cannot be negative");
+        }
+
+        this.animationBudget = animationBudget;
+    }
+
+    /**
+     * @return The maximum number of transaction animators that may run at once.
+     */
+    public int getAnimationBudget() {
+        return animationBudget;
+    }
+
+    /**
+     * Specifies how the context degrades when starting
+     * a transaction would exceed the animation budget.
+     *
+     * @param budgetPolicy The policy. Defaults to {@link #BUDGET_POLICY_END_OLDEST}.
+     */
+    public void setBudgetPolicy(@BudgetPolicy int budgetPolicy) {
+        this.budgetPolicy = budgetPolicy;
+    }
+
+    /**
+     * @return How the context degrades when the animation budget is exceeded.
+     */
+    public @BudgetPolicy int getBudgetPolicy() {
+        return budgetPolicy;
+    }
+
+    /**
+     * @return The number of animators in transactions that are currently running.
+     */
+    public int getRunningTransactionAnimatorCount() {
+        return runningTransactionAnimatorCount;
+    }
+
+    /**
+     * @return The number of times starting a transaction has exceeded the animation
+     *         budget over the lifetime of the context. Each occurrence resulted in running
+     *         transactions being fast-forwarded, or the new transaction being applied instantly.
+     */
+    public int getOverBudgetCount() {
+        return overBudgetCount;
+    }
+
+    /**
+     * Starts the animator of a transaction, enforcing the context's animation budget.
+     *
+     * @param transaction The transaction to start.
+     */
+    void startTransaction(final @NonNull Transaction transaction) {
+        if (ChromeTraceRecorder.isRecording()) {
+            final long startedAt = System.nanoTime();
+            startTransactionNow(transaction);
+            recordSpan("Transaction start", startedAt);
+        } else {
+            startTransactionNow(transaction);
+        }
+    }
+
+    private void startTransactionNow(final @NonNull Transaction transaction) {
+        pendingTransactions.remove(transaction);
+
+        if (adaptiveQualityEnabled) {
+            updateQualityLevel(SystemClock.uptimeMillis());
+        }
+        final @QualityLevel int qualityLevel = this.qualityLevel;
+        if (instantMode || qualityLevel == QUALITY_INSTANT) {
+            transaction.applyInstantly();
+            return;
+        } else if (qualityLevel != QUALITY_FULL) {
+            transaction.degrade(qualityLevel);
+        }
+
+        final boolean systrace = SYSTRACE;
+        if (systrace) {
+            Systrace.beginSection(Systrace.TO_ANIMATOR);
+        }
+        final Animator animator;
+        try {
+            animator = transaction.toAnimator();
+        } finally {
+            if (systrace) {
+                Systrace.endSection();
+            }
+        }
+        final int animatorCount = transaction.getAnimatorCount();
+        if (runningTransactionAnimatorCount + animatorCount > animationBudget) {
+            this.overBudgetCount++;
+
+            trace(AnimatorTrace.EVENT_OVER_BUDGET, null, animatorCount);
+
+            if (budgetPolicy == BUDGET_POLICY_END_OLDEST) {
+                while (!runningTransactions.isEmpty() &&
+                        runningTransactionAnimatorCount + animatorCount > animationBudget) {
+                    final Transaction oldest = runningTransactions.get(0);
+                    oldest.toAnimator().end();
+                    untrackTransaction(oldest);
+                }
+            }
+
+            if (runningTransactionAnimatorCount + animatorCount > animationBudget) {
+                transaction.applyInstantly();
+                return;
+            }
+        }
+
+        untrackTransaction(transaction);
+        runningTransactions.add(transaction);
+        this.runningTransactionAnimatorCount += animatorCount;
+
+        final boolean recordPerformance = (performanceRecorder != null);
+        final long startedAt = recordPerformance ? System.nanoTime() : 0L;
+        final int droppedFramesAtStart = totalDroppedFrameCount;
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                animation.removeListener(this);
+                untrackTransaction(transaction);
+                if (recordPerformance) {
+                    recordTransaction(transaction, startedAt, droppedFramesAtStart);
+                }
+            }
+        });
+        animator.start();
+    }
+
+    private void untrackTransaction(@NonNull Transaction transaction) {
+        if (runningTransactions.remove(transaction)) {
+            this.runningTransactionAnimatorCount -= transaction.getAnimatorCount();
+        }
+    }
+
+    //endregion
+
+
+    //region Start Batching
+
+    /**
+     * Specifies whether or not multi-animators bound to the context should batch their starts.
+     * When enabled, multi-animators started within a single frame are started together on the
+     * next frame. If several are started for the same view, only the most recent one runs,
+     * taking on the properties of the others. {@link MultiAnimator#postStart()} always batches.
+     * <p>
+     * Pending starts count as an active animation within the context.
+     *
+     * @param startBatchingEnabled Whether or not start batching is enabled.
+     */
+    public void setStartBatchingEnabled(boolean startBatchingEnabled) {
+        this.startBatchingEnabled = startBatchingEnabled;
+        if (!startBatchingEnabled && startScheduler != null) {
+            startScheduler.flush();
+        }
+    }
+
+    /**
+     * @return Whether or not multi-animators bound to the context batch their starts.
+     */
+    public boolean isStartBatchingEnabled() {
+        return startBatchingEnabled;
+    }
+
+    /**
+     * Schedules a multi-animator to start on the next frame.
+     *
+     * @param animator The multi-animator.
+     */
+    void scheduleStart(@NonNull MultiAnimator animator) {
+        if (startScheduler == null) {
+            this.startScheduler = new StartScheduler(this);
+            if (activityCounter.isPaused()) {
+                startScheduler.pause();
             }
-
-            return false;
         }
-    });
+        startScheduler.schedule(animator);
+    }
 
     /**
-     * Constructs an animator context with a given name.
-     * @param name  The name used for {@link #toString()}.
+     * Removes a multi-animator from the starts scheduled for the next frame.
+     *
+     * @param animator The multi-animator.
+     * @return true if the multi-animator was scheduled to start; false otherwise.
      */
-    public AnimatorContext(@NonNull String name) {
-        this.name = name;
+    boolean unscheduleStart(@NonNull MultiAnimator animator) {
+        return (startScheduler != null && startScheduler.unschedule(animator));
     }
 
+    /**
+     * Immediately starts any multi-animators scheduled to start on the next frame.
+     */
+    void flushScheduledStarts() {
+        if (startScheduler != null) {
+            startScheduler.flush();
+        }
+    }
 
-    //region Listeners
+    //endregion
+
+
+    //region Instant Mode
 
     /**
-     * Posts a unit of work to run when the context is idle.
+     * Specifies whether or not the context should apply animations instantly. In instant mode,
+     * transactions and multi-animators bound to the context apply their end states synchronously
+     * and notify their listeners in order, without running any {@code ViewPropertyAnimator}s
+     * or building any {@code AnimatorSet}s.
      * <p>
-     * The task will be immediately executed if
-     * the animation context is currently idle.
+     * Useful for honoring the user's motion preferences, and for making UI tests fast.
      *
-     * @param task The task.
+     * @param instantMode Whether or not instant mode is enabled.
+     *
+     * @see #updateInstantMode(Context)
      */
-    public void runWhenIdle(@NonNull Runnable task) {
-        if (DEBUG) {
-            printTrace("runWhenIdle");
-        }
+    public void setInstantMode(boolean instantMode) {
+        this.instantMode = instantMode;
+    }
 
-        if (activeAnimationCount == 0) {
-            task.run();
-        } else {
-            runOnIdle.add(task);
-        }
+    /**
+     * @return Whether or not the context applies animations instantly.
+     */
+    public boolean isInstantMode() {
+        return instantMode;
     }
 
     /**
-     * Schedules an animator to start when the animator context is idle next.
-     * @param animator  The animator to start.
+     * Enables instant mode if the user has opted out of animations through system settings,
+     * disables it otherwise. Should be called when the owner of the context resumes.
+     *
+     * @param context The context to read system settings through.
+     * @return Whether or not instant mode is now enabled.
+     *
+     * @see Anime#areSystemAnimationsDisabled(Context)
      */
-    public void startWhenIdle(final @NonNull Animator animator) {
-        runWhenIdle(new Runnable() {
-            @Override
-            public void run() {
-                animator.start();
-            }
-        });
+    public boolean updateInstantMode(@NonNull Context context) {
+        setInstantMode(Anime.areSystemAnimationsDisabled(context));
+        return instantMode;
     }
 
     //endregion
 
 
-    //region Active Animations
-
-    private void printTrace(@NonNull String traceName) {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        int size = Math.min(stackTrace.length - 3, 4);
-        String[] partialTraceComponents = new String[size];
-        for (int i = 0; i < size; i++) {
-            StackTraceElement stackTraceElement = stackTrace[i + 3];
-            partialTraceComponents[i] = stackTraceElement.getClassName() + "#" + stackTraceElement.getMethodName();
-        }
-        String partialTrace = TextUtils.join("\n", partialTraceComponents);
-        Log.i(getClass().getSimpleName(), traceName + ": " + partialTrace);
-    }
+    //region Adaptive Quality
 
     /**
-     * Increment the active animation counter, potentially
-     * bringing the animator context into the active state.
+     * Specifies whether or not the context should degrade the quality of transactions
+     * when frames are dropped while animations are running. Requires Jelly Bean or later,
+     * the context always runs at {@link #QUALITY_FULL} on earlier versions of Android.
      * <p>
-     * Animation tracking is implemented as a counter instead
-     * of tracking animator instances to allow interactive
-     * transitions to be treated as active animations within
-     * a context. E.g. this can be used to prevent unwanted
-     * animations from running when a user is swiping between
-     * elements on a screen.
+     * Every {@link #DROPPED_FRAMES_TO_DEGRADE} dropped frames cause quality to degrade
+     * by one level, and every {@link #QUALITY_RECOVERY_MILLIS} without a dropped frame
+     * cause quality to recover by one level.
      *
-     * @param name The name of the animation, used for debugging.
+     * @param adaptiveQualityEnabled Whether or not adaptive quality is enabled.
+     *
+     * @see QualityLevel
      */
-    public void beginAnimation(@NonNull String name) {
-        idleHandler.removeMessages(MSG_IDLE);
+    public void setAdaptiveQualityEnabled(boolean adaptiveQualityEnabled) {
+        if (adaptiveQualityEnabled == this.adaptiveQualityEnabled) {
+            return;
+        }
 
-        this.activeAnimationCount++;
+        this.adaptiveQualityEnabled = adaptiveQualityEnabled;
+        this.qualityLevel = QUALITY_FULL;
+        this.droppedFrameCount = 0;
+        this.smoothFrameCount = 0;
 
-        if (DEBUG) {
-            printTrace("beginAnimation('" + name + "') [" + activeAnimationCount + "]");
-        }
+        updateFrameMonitor();
     }
 
     /**
-     * Decrement the active animation counter, potentially
-     * bringing the animator context out of the active state.
-     * If the counter reaches zero with this call, on the next
-     * looper cycle any queued idle tasks will be executed.
-     * <p>
-     * Calling {@link #beginAnimation(String)} before the next looper
-     * cycle will cause those tasks to remain queued.
-     *
-     * @param name The name of the animation, used for debugging.
-     *
-     * @see #beginAnimation(String) for rationale behind this API design.
+     * Creates or destroys the context's frame monitor depending on
+     * whether adaptive quality or performance recording is enabled.
      */
-    public void endAnimation(@NonNull String name) {
-        if (activeAnimationCount == 0) {
-            throw new IllegalStateException("Animation '" + name + "'" +
-                                                    " ended more than once in " + toString());
+    private void updateFrameMonitor() {
+        final boolean needsFrameMonitor = (adaptiveQualityEnabled || performanceRecorder != null);
+        if (needsFrameMonitor && frameMonitor == null && FrameMonitor.isSupported()) {
+            this.frameMonitor = new FrameMonitor(new FrameMonitor.Listener() {
+                @Override
+                public void onFrameRendered(int droppedFrames) {
+                    AnimatorContext.this.onFrameRendered(droppedFrames);
+                }
+            });
+            if (activityCounter.getActiveCount() > 0 && !activityCounter.isPaused()) {
+                frameMonitor.start();
+            }
+        } else if (!needsFrameMonitor && frameMonitor != null) {
+            frameMonitor.stop();
+            this.frameMonitor = null;
         }
+    }
 
-        this.activeAnimationCount--;
+    /**
+     * @return Whether or not adaptive quality is enabled.
+     */
+    public boolean isAdaptiveQualityEnabled() {
+        return adaptiveQualityEnabled;
+    }
 
-        if (DEBUG) {
-            printTrace("endAnimation (" + name + ") [" + activeAnimationCount + "]");
-        }
+    /**
+     * Returns the quality level as of the last rendered frame or started transaction.
+     * Recovery from dropped frames is applied at those points, so the level
+     * reported after a period without animations may still be degraded.
+     *
+     * @return The quality level transactions run at.
+     */
+    public @QualityLevel int getQualityLevel() {
+        return qualityLevel;
+    }
 
-        if (activeAnimationCount == 0) {
-            idleHandler.removeMessages(MSG_IDLE);
-            idleHandler.sendEmptyMessage(MSG_IDLE);
+    /**
+     * Recovers one quality level for every {@link #QUALITY_RECOVERY_MILLIS}
+     * that have passed since frames were last dropped.
+     *
+     * @param now The current uptime in milliseconds.
+     */
+    private void updateQualityLevel(long now) {
+        if (qualityLevel != QUALITY_FULL) {
+            final long elapsed = now - lastDroppedFrameAt;
+            if (elapsed >= QUALITY_RECOVERY_MILLIS) {
+                final int levels = (int) Math.min(qualityLevel, elapsed / QUALITY_RECOVERY_MILLIS);
+                this.qualityLevel -= levels;
+                this.lastDroppedFrameAt += levels * QUALITY_RECOVERY_MILLIS;
+
+                trace(AnimatorTrace.EVENT_QUALITY_CHANGED, null, qualityLevel);
+            }
         }
     }
 
     /**
-     * Binds the animator context to the begin/end animation events of a given animator.
-     * <p>
-     * <em>Important:</em> Bindings are one-shot. So if you plan on re-using a
-     * bound animator, you will need to bind it at the beginning of each use.
-     *
-     * @param animator  The animator to bind.
-     * @param name      The name of the animator.
-     * @param <T>       The type of the animator.
+     * Updates the adaptive quality level after a frame has been rendered.
      *
-     * @throws IllegalArgumentException if {@code animator} is annotated {@link NotBindable}.
-     * @see NotBindable
+     * @param droppedFrames The number of frames dropped since the previous frame.
      */
-    public <T extends Animator> void bind(@NonNull T animator, @NonNull String name) {
-        if (animator.getClass().getAnnotation(NotBindable.class) != null) {
-            throw new IllegalArgumentException("bind cannot be used with @NotBindable class " + animator.getClass());
+    void onFrameRendered(int droppedFrames) {
+        this.totalDroppedFrameCount += droppedFrames;
+        if (!adaptiveQualityEnabled) {
+            return;
         }
 
-        animator.addListener(new BindAnimatorListener(name, this));
+        final long now = SystemClock.uptimeMillis();
+        updateQualityLevel(now);
+
+        final @QualityLevel int currentLevel = qualityLevel;
+        if (droppedFrames > 0) {
+            this.smoothFrameCount = 0;
+            this.droppedFrameCount += droppedFrames;
+            this.lastDroppedFrameAt = now;
+
+            if (droppedFrameCount >= DROPPED_FRAMES_TO_DEGRADE) {
+                this.droppedFrameCount = 0;
+                if (currentLevel < QUALITY_INSTANT) {
+                    this.qualityLevel = currentLevel + 1;
+
+                    trace(AnimatorTrace.EVENT_QUALITY_CHANGED, null, qualityLevel);
+                }
+            }
+        } else if (++smoothFrameCount >= SMOOTH_FRAMES_TO_FORGIVE) {
+            this.smoothFrameCount = 0;
+            this.droppedFrameCount = 0;
+        }
     }
 
     //endregion
@@ -255,17 +1271,46 @@ public class AnimatorContext {
         final AnimatorTemplate transactionTemplate = template != null
                 ? template
                 : this.transactionTemplate;
-        final Transaction transaction = new Transaction(this, transactionTemplate);
-        consumer.consume(transaction);
+        final Transaction transaction = new Transaction(this, transactionTemplate, options);
+        if (performanceRecorder != null) {
+            transaction.nameHash = consumer.getClass().getName().hashCode();
+        }
+        final boolean systrace = SYSTRACE;
+        if (systrace) {
+            Systrace.beginSection(Systrace.TRANSACTION);
+        }
+        try {
+            if (ChromeTraceRecorder.isRecording()) {
+                final long startedAt = System.nanoTime();
+                consumer.consume(transaction);
+                recordSpan("Transaction build", startedAt);
+            } else {
+                consumer.consume(transaction);
+            }
+        } finally {
+            if (systrace) {
+                Systrace.endSection();
+            }
+        }
 
-        final Animator animator = transaction.toAnimator();
         if (onCompleted != null) {
-            animator.addListener(new OnAnimationCompleted.Adapter(onCompleted));
+            transaction.setOnAnimationCompleted(onCompleted);
         }
         if ((options & OPTION_START_ON_IDLE) == OPTION_START_ON_IDLE) {
-            startWhenIdle(animator);
+            if (performanceRecorder != null) {
+                transaction.queuedAt = System.nanoTime();
+            }
+            if (instanceTrackingEnabled) {
+                pendingTransactions.add(transaction);
+            }
+            runWhenIdle(new Runnable() {
+                @Override
+                public void run() {
+                    transaction.start();
+                }
+            });
         } else {
-            animator.start();
+            startTransaction(transaction);
         }
 
         return transaction;
@@ -289,6 +1334,72 @@ public class AnimatorContext {
     //endregion
 
 
+    //region Diagnostics
+
+    /**
+     * Prints the state of the context in a human readable form. Suitable
+     * for use from {@code Activity#dump} and {@code Fragment#dump}.
+     *
+     * @param writer The writer.
+     */
+    public void dump(@NonNull PrintWriter writer) {
+        writer.println(toString() + ":");
+        writer.println("  active animations: " + activityCounter.getActiveCount() +
+                               (activityCounter.isPaused() ? " (paused)" : ""));
+
+        final List<Runnable> idleTasks = activityCounter.copyIdleTasks();
+        writer.println("  idle tasks: " + idleTasks.size());
+        for (final Runnable task : idleTasks) {
+            writer.println("    " + task.getClass().getName());
+        }
+
+        writer.println("  tracked animators: " + trackedAnimators.size() +
+                               (instanceTrackingEnabled ? "" : " (tracking disabled)"));
+        for (final Animator animator : new ArrayList<>(trackedAnimators)) {
+            writer.println("    " + animator);
+        }
+
+        writer.println("  running multi-animators: " + runningMultiAnimators.size());
+
+        writer.println("  running transactions: " + runningTransactions.size() + " (" +
+                               runningTransactionAnimatorCount + " animators, budget " +
+                               formatBudget(animationBudget) + ")");
+        for (final Transaction transaction : runningTransactions) {
+            writer.println("    " + transaction.getAnimatorCount() + " animators, options=0x" +
+                                   Integer.toHexString(transaction.options) + ", " + transaction.template);
+        }
+
+        writer.println("  pending transactions: " + pendingTransactions.size() +
+                               (instanceTrackingEnabled ? "" : " (tracking disabled)"));
+        writer.println("  batched starts: " +
+                               (startScheduler != null ? startScheduler.getPendingCount() : 0));
+        writer.println("  hardware layers: " + activeHardwareLayerCount + " (budget " +
+                               formatBudget(hardwareLayerBudget) + ")");
+        writer.println("  quality level: " + qualityLevel +
+                               (adaptiveQualityEnabled ? " (adaptive)" : "") +
+                               (instantMode ? ", instant mode" : ""));
+        writer.println("  over budget count: " + overBudgetCount);
+        writer.println("  timed out animation count: " + timedOutAnimationCount +
+                               (watchdog != null ? "" : " (watchdog disabled)"));
+
+        if (performanceRecorder != null) {
+            writer.println("  performance recorder: " + performanceRecorder.getFile() + " (" +
+                                   performanceRecorder.getDroppedRecordCount() + " dropped)");
+        }
+
+        if (idleTaskProfiler != null) {
+            idleTaskProfiler.dump(writer);
+        }
+        writer.flush();
+    }
+
+    private static @NonNull String formatBudget(int budget) {
+        return (budget == UNLIMITED_ANIMATION_BUDGET) ? "unlimited" : Integer.toString(budget);
+    }
+
+    //endregion
+
+
     @Override
     public String toString() {
         return "AnimationSystem{" +
@@ -314,9 +1425,17 @@ public class AnimatorContext {
          */
         public final AnimatorTemplate template;
 
+        /**
+         * The options the transaction was created with.
+         */
+        public final @TransactionOptions int options;
+
         private final List<Animator> pending = new ArrayList<>(2);
+        private @Nullable OnAnimationCompleted onAnimationCompleted;
         private @Nullable Animator animator;
         private boolean canceled = false;
+        private int nameHash = 0;
+        private long queuedAt = 0L;
 
         /**
          * Construct a transaction with an animator context and template.
@@ -330,8 +1449,26 @@ public class AnimatorContext {
          */
         public Transaction(@NonNull AnimatorContext animatorContext,
                            @NonNull AnimatorTemplate template) {
+            this(animatorContext, template, OPTIONS_DEFAULT);
+        }
+
+        /**
+         * Construct a transaction with an animator context, template, and options.
+         * <p>
+         * Should not be called directly unless creating a new subclass.
+         *
+         * @param animatorContext The context the transaction belongs to.
+         * @param template The template to apply to animators added to the transaction.
+         * @param options The options of the transaction.
+         *
+         * @see #transaction(AnimatorTemplate, int, TransactionConsumer, OnAnimationCompleted)
+         */
+        public Transaction(@NonNull AnimatorContext animatorContext,
+                           @NonNull AnimatorTemplate template,
+                           @TransactionOptions int options) {
             this.animatorContext = animatorContext;
             this.template = template;
+            this.options = options;
         }
 
         /**
@@ -349,6 +1486,15 @@ public class AnimatorContext {
          */
         public MultiAnimator animatorFor(@NonNull View view) {
             MultiAnimator multiAnimator = MultiAnimator.animatorFor(view, animatorContext);
+            if ((options & OPTION_HARDWARE_LAYERS) == OPTION_HARDWARE_LAYERS) {
+                multiAnimator.withLayer();
+            }
+            if ((options & OPTION_CULL_INVISIBLE) == OPTION_CULL_INVISIBLE) {
+                multiAnimator.withVisibilityCulling();
+            }
+            if ((options & OPTION_RENDER_THREAD) == OPTION_RENDER_THREAD) {
+                multiAnimator.withRenderThread();
+            }
             pending.add(multiAnimator);
             return multiAnimator;
         }
@@ -398,17 +1544,102 @@ public class AnimatorContext {
                     template.apply(set);
                     this.animator = set;
                 }
+
+                if (onAnimationCompleted != null) {
+                    animator.addListener(new OnAnimationCompleted.Adapter(onAnimationCompleted));
+                }
             }
             return animator;
         }
 
+        /**
+         * @return The number of animators in the transaction.
+         */
+        int getAnimatorCount() {
+            return pending.size();
+        }
+
+        /**
+         * Specifies a listener to invoke when the transaction's animators all complete.
+         *
+         * @param onAnimationCompleted The listener.
+         */
+        void setOnAnimationCompleted(@NonNull OnAnimationCompleted onAnimationCompleted) {
+            this.onAnimationCompleted = onAnimationCompleted;
+            if (animator != null) {
+                animator.addListener(new OnAnimationCompleted.Adapter(onAnimationCompleted));
+            }
+        }
+
+        /**
+         * Applies the end state of every animator in the transaction synchronously.
+         * <p>
+         * If the transaction has not been converted into an animator, the members are
+         * completed one after another in the order they were added, and no animator set
+         * is created. Otherwise, the transaction's animator is started and ended.
+         */
+        void applyInstantly() {
+            for (final Animator animator : pending) {
+                if (animator instanceof MultiAnimator) {
+                    ((MultiAnimator) animator).skipNextStart();
+                }
+            }
+
+            if (animator != null) {
+                completeInstantly(animator);
+            } else {
+                for (final Animator member : pending) {
+                    completeInstantly(member);
+                }
+                if (onAnimationCompleted != null) {
+                    onAnimationCompleted.onAnimationCompleted(true);
+                }
+            }
+        }
+
+        private static void completeInstantly(@NonNull Animator animator) {
+            if (animator instanceof MultiAnimator) {
+                // Bypasses start batching, which would defer the end state to the next frame.
+                ((MultiAnimator) animator).startNow();
+            } else {
+                animator.start();
+                if (animator.isStarted()) {
+                    animator.end();
+                }
+            }
+        }
+
+        /**
+         * Reduces the cost of the animators in the transaction for a given quality level.
+         * <p>
+         * {@link #QUALITY_INSTANT} is not handled by this method.
+         *
+         * @param qualityLevel The quality level.
+         */
+        void degrade(@QualityLevel int qualityLevel) {
+            for (final Animator animator : pending) {
+                if (qualityLevel >= QUALITY_REDUCED_PROPERTIES) {
+                    animator.setStartDelay(0);
+                    if (animator instanceof MultiAnimator) {
+                        ((MultiAnimator) animator).reduceProperties();
+                    }
+                } else {
+                    animator.setStartDelay(animator.getStartDelay() / 2);
+                }
+            }
+        }
+
         /**
          * Immediately start the animations in the transaction
          * if the transaction hasn't been canceled.
+         * <p>
+         * The animation budget of the transaction's context is enforced.
+         *
+         * @see AnimatorContext#setAnimationBudget(int)
          */
         public void start() {
             if (!canceled) {
-                toAnimator().start();
+                animatorContext.startTransaction(this);
             }
         }
 
@@ -423,6 +1654,24 @@ public class AnimatorContext {
             }
         }
 
+        /**
+         * Immediately moves the animators in the transaction to their final states,
+         * and makes all future calls to {@link #start()} no-ops. Transactions that
+         * haven't started yet are applied instantly.
+         */
+        public void end() {
+            if (canceled) {
+                return;
+            }
+
+            this.canceled = true;
+            if (animator != null && animator.isStarted()) {
+                animator.end();
+            } else {
+                applyInstantly();
+            }
+        }
+
         /**
          * Whether or not the transaction is currently running.
          * @return  true if the transaction is running; false otherwise.
@@ -456,12 +1705,57 @@ public class AnimatorContext {
         @NonNull AnimatorContext getAnimatorContext();
     }
 
+    /**
+     * Receives the animations reported by an animator context's dangling animation watchdog.
+     *
+     * @see #setWatchdogTimeout(long, boolean)
+     */
+    public interface WatchdogListener {
+        /**
+         * Called when an animation has been active for longer than the watchdog timeout.
+         *
+         * @param animatorContext The animator context the animation belongs to.
+         * @param name            The name the animation began with.
+         * @param elapsedMillis   How long the animation has been active.
+         * @param willEnd         Whether or not the animation will be forcibly ended.
+         */
+        void onAnimationTimedOut(@NonNull AnimatorContext animatorContext,
+                                 @NonNull String name,
+                                 long elapsedMillis,
+                                 boolean willEnd);
+    }
+
 
     /**
      * The transaction should start when the animator context is idle.
      */
     public static final int OPTION_START_ON_IDLE = (1 << 1);
 
+    /**
+     * Multi-animators created by the transaction should render into hardware
+     * layers where beneficial, subject to the context's hardware layer budget.
+     *
+     * @see MultiAnimator#withLayer()
+     */
+    public static final int OPTION_HARDWARE_LAYERS = (1 << 2);
+
+    /**
+     * Multi-animators created by the transaction should apply their end state immediately
+     * instead of animating if their target view cannot be seen when the transaction starts.
+     * Skipped animators do not count as active animations.
+     *
+     * @see MultiAnimator#withVisibilityCulling()
+     */
+    public static final int OPTION_CULL_INVISIBLE = (1 << 3);
+
+    /**
+     * Multi-animators created by the transaction should run on the RenderThread
+     * where the platform allows, so they continue while the main thread is busy.
+     *
+     * @see MultiAnimator#withRenderThread()
+     */
+    public static final int OPTION_RENDER_THREAD = (1 << 4);
+
     /**
      * Use the default transaction options.
      */
@@ -469,19 +1763,88 @@ public class AnimatorContext {
 
     /**
      * @see AnimatorContext#OPTION_START_ON_IDLE
+     * @see AnimatorContext#OPTION_HARDWARE_LAYERS
+     * @see AnimatorContext#OPTION_CULL_INVISIBLE
+     * @see AnimatorContext#OPTION_RENDER_THREAD
      * @see AnimatorContext#OPTIONS_DEFAULT
      */
     @IntDef(flag = true, value = {
             OPTION_START_ON_IDLE,
+            OPTION_HARDWARE_LAYERS,
+            OPTION_CULL_INVISIBLE,
+            OPTION_RENDER_THREAD,
             OPTIONS_DEFAULT,
     })
     @Retention(RetentionPolicy.SOURCE)
     public @interface TransactionOptions {}
 
 
+    /**
+     * Running transactions are fast-forwarded to their end state, oldest first, until
+     * the new transaction fits within the budget. If the new transaction cannot fit
+     * even after all running transactions have ended, it is applied instantly.
+     */
+    public static final int BUDGET_POLICY_END_OLDEST = 0;
+
+    /**
+     * Running transactions are left alone, and the new
+     * transaction's animators apply their end state instantly.
+     */
+    public static final int BUDGET_POLICY_SKIP_NEW = 1;
+
+    /**
+     * @see AnimatorContext#BUDGET_POLICY_END_OLDEST
+     * @see AnimatorContext#BUDGET_POLICY_SKIP_NEW
+     */
+    @IntDef({
+            BUDGET_POLICY_END_OLDEST,
+            BUDGET_POLICY_SKIP_NEW,
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface BudgetPolicy {}
+
+
+    /**
+     * Transactions run as specified.
+     */
+    public static final int QUALITY_FULL = 0;
+
+    /**
+     * The start delays of transaction animators are halved, shortening staggered animations.
+     */
+    public static final int QUALITY_REDUCED_STAGGER = 1;
+
+    /**
+     * Transaction animators start without delay, and multi-animators only animate
+     * alpha and position. Scale and rotation are applied immediately.
+     */
+    public static final int QUALITY_REDUCED_PROPERTIES = 2;
+
+    /**
+     * Transactions apply their end state instantly.
+     */
+    public static final int QUALITY_INSTANT = 3;
+
+    /**
+     * @see AnimatorContext#QUALITY_FULL
+     * @see AnimatorContext#QUALITY_REDUCED_STAGGER
+     * @see AnimatorContext#QUALITY_REDUCED_PROPERTIES
+     * @see AnimatorContext#QUALITY_INSTANT
+     */
+    @IntDef({
+            QUALITY_FULL,
+            QUALITY_REDUCED_STAGGER,
+            QUALITY_REDUCED_PROPERTIES,
+            QUALITY_INSTANT,
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface QualityLevel {}
+
+
     private static class BindAnimatorListener extends AnimatorListenerAdapter {
         private final String name;
         private final WeakReference<AnimatorContext> animatorContext;
+        private int token = ActivityCounter.NO_TOKEN;
         private boolean hasEnded = false;
 
         /**
@@ -500,7 +1863,7 @@ public class AnimatorContext {
         public void onAnimationStart(Animator animation) {
             final AnimatorContext animatorContext = this.animatorContext.get();
             if (animatorContext != null) {
-                animatorContext.beginAnimation(name);
+                this.token = animatorContext.beginAnimation(name);
             }
         }
 
@@ -512,7 +1875,10 @@ public class AnimatorContext {
 
             final AnimatorContext animatorContext = this.animatorContext.get();
             if (animatorContext != null) {
-                animatorContext.endAnimation(name);
+                if (token != ActivityCounter.NO_TOKEN) {
+                    animatorContext.endAnimation(token);
+                }
+                animatorContext.untrackAnimator(animation);
             }
 
             this.hasEnded = true;
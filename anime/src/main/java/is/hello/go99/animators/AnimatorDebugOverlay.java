@@ -0,0 +1,395 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.WindowManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import is.hello.go99.Anime;
+
+/**
+ * A view that draws the live state of an {@link AnimatorContext} over a scene: the active
+ * animation count, the idle task queue depth, a graph of recent frame times, and outlines
+ * around every view in {@link Anime}'s animating set.
+ * <p>
+ * The overlay should be added on top of the scene's content, matching its size. It does not
+ * handle touches. All drawing state is preallocated. The overlay only observes frames while
+ * it's shown in a visible window, and only redraws when something is animating or one of
+ * its counts has changed.
+ *
+ * @see #setScene(AnimatorContext.Scene)
+ */
+public class AnimatorDebugOverlay extends View {
+    /**
+     * The number of frames shown in the frame time graph.
+     */
+    public static final int FRAME_SAMPLES = 120;
+
+    private static final float GRAPH_HEIGHT_DP = 64f;
+    private static final float TEXT_SIZE_SP = 12f;
+    private static final float OUTLINE_WIDTH_DP = 2f;
+
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint backgroundPaint = new Paint();
+    private final Paint graphPaint = new Paint();
+    private final Paint budgetPaint = new Paint();
+    private final Paint outlinePaint = new Paint();
+    private final Path outlinePath = new Path();
+
+    private final long[] frameTimes = new long[FRAME_SAMPLES];
+    private final float[] graphLines = new float[FRAME_SAMPLES * 4];
+    private int frameIndex = 0;
+    private long lastFrameTimeNanos = 0L;
+    private long frameIntervalNanos = FrameMonitor.DEFAULT_FRAME_INTERVAL_NANOS;
+
+    private final List<View> animatingViews = new ArrayList<>();
+    private final int[] overlayLocation = new int[2];
+    private final int[] viewLocation = new int[2];
+    private final char[] textBuffer = new char[32];
+    private int drawnViewCount = -1;
+    private int drawnIdleCount = -1;
+    private int drawnActiveCount = -1;
+
+    private final float graphHeight;
+    private final float lineHeight;
+
+    private @Nullable AnimatorContext animatorContext;
+    private @Nullable Object frameCallback;
+    private boolean frameCallbackPosted = false;
+    private boolean attached = false;
+
+
+    //region Lifecycle
+
+    public AnimatorDebugOverlay(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public AnimatorDebugOverlay(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public AnimatorDebugOverlay(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        final DisplayMetrics metrics = getResources().getDisplayMetrics();
+        this.graphHeight = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, GRAPH_HEIGHT_DP, metrics);
+        final float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, TEXT_SIZE_SP, metrics);
+        this.lineHeight = textSize * 1.25f;
+
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(textSize);
+        backgroundPaint.setColor(0x99000000);
+        graphPaint.setColor(0xFF4CAF50);
+        budgetPaint.setColor(0xFFF44336);
+
+        outlinePaint.setColor(0xFFFF4081);
+        outlinePaint.setStyle(Paint.Style.STROKE);
+        outlinePaint.setStrokeWidth(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                                                              OUTLINE_WIDTH_DP, metrics));
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        final WindowManager windowManager =
+                (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        final float refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        this.frameIntervalNanos = FrameMonitor.calculateFrameInterval(refreshRate);
+
+        this.attached = true;
+        updateFrameCallback();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        this.attached = false;
+        updateFrameCallback();
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+
+        updateFrameCallback();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        updateFrameCallback();
+    }
+
+    //endregion
+
+
+    //region Attributes
+
+    /**
+     * Sets the animator context whose state the overlay draws.
+     *
+     * @param animatorContext The context, or {@code null} to only draw frame times and outlines.
+     */
+    public void setAnimatorContext(@Nullable AnimatorContext animatorContext) {
+        this.animatorContext = animatorContext;
+        invalidate();
+    }
+
+    /**
+     * Sets the animator context whose state the overlay draws to that of a given scene.
+     *
+     * @param scene The scene.
+     */
+    public void setScene(@NonNull AnimatorContext.Scene scene) {
+        setAnimatorContext(scene.getAnimatorContext());
+    }
+
+    //endregion
+
+
+    //region Frames
+
+    /**
+     * Observes frames while the overlay is shown in a visible window, and stops
+     * observing them otherwise. May be called from the super constructor,
+     * so it must not depend on field initializers having run.
+     */
+    private void updateFrameCallback() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            return;
+        }
+
+        final boolean shouldObserve = (attached && getWindowVisibility() == VISIBLE && isShown());
+        if (shouldObserve && !frameCallbackPosted) {
+            postFrameCallback();
+        } else if (!shouldObserve && frameCallbackPosted) {
+            removeFrameCallback();
+            this.lastFrameTimeNanos = 0L;
+        }
+    }
+
+    /**
+     * @return Whether or not the overlay is observing frames.
+     */
+    boolean isObservingFrames() {
+        return frameCallbackPosted;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (frameCallback == null) {
+            this.frameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    if (frameCallbackPosted) {
+                        onFrame(frameTimeNanos);
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+        this.frameCallbackPosted = true;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void removeFrameCallback() {
+        if (frameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback((Choreographer.FrameCallback) frameCallback);
+        }
+        this.frameCallbackPosted = false;
+    }
+
+    /**
+     * Records the interval since the previous frame while anything is animating,
+     * and schedules a redraw if the overlay's contents have changed. Frames are not
+     * recorded while idle, so the graph keeps showing the last animation.
+     *
+     * @param frameTimeNanos The time the frame began.
+     * @return Whether or not a redraw was scheduled.
+     */
+    boolean onFrame(long frameTimeNanos) {
+        final AnimatorContext animatorContext = this.animatorContext;
+        final int viewCount = Anime.getAnimatingViewCount();
+        final int idleCount = animatorContext != null ? animatorContext.getIdleTaskCount() : 0;
+        final int activeCount = animatorContext != null ? animatorContext.getActiveAnimationCount() : 0;
+
+        final boolean animating = (viewCount > 0 || activeCount > 0);
+        if (animating) {
+            if (lastFrameTimeNanos != 0L) {
+                frameTimes[frameIndex] = frameTimeNanos - lastFrameTimeNanos;
+                this.frameIndex = (frameIndex + 1) % FRAME_SAMPLES;
+            }
+            this.lastFrameTimeNanos = frameTimeNanos;
+        } else {
+            this.lastFrameTimeNanos = 0L;
+        }
+
+        if (animating || viewCount != drawnViewCount ||
+                idleCount != drawnIdleCount || activeCount != drawnActiveCount) {
+            invalidate();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    //endregion
+
+
+    //region Drawing
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        drawOutlines(canvas);
+        drawGraph(canvas);
+        drawCounts(canvas);
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            postInvalidateDelayed(frameIntervalNanos / 1000000L);
+        }
+    }
+
+    private void drawOutlines(@NonNull Canvas canvas) {
+        animatingViews.clear();
+        Anime.getAnimatingViews(animatingViews);
+        if (animatingViews.isEmpty()) {
+            return;
+        }
+
+        getLocationInWindow(overlayLocation);
+        outlinePath.rewind();
+        for (int i = 0, size = animatingViews.size(); i < size; i++) {
+            final View view = animatingViews.get(i);
+            if (view.getWindowToken() == null || view.getWindowToken() != getWindowToken()) {
+                continue;
+            }
+
+            view.getLocationInWindow(viewLocation);
+            final float left = viewLocation[0] - overlayLocation[0];
+            final float top = viewLocation[1] - overlayLocation[1];
+            outlinePath.addRect(left, top, left + view.getWidth(), top + view.getHeight(),
+                                Path.Direction.CW);
+        }
+        animatingViews.clear();
+
+        canvas.drawPath(outlinePath, outlinePaint);
+    }
+
+    private void drawGraph(@NonNull Canvas canvas) {
+        final float width = canvas.getWidth();
+        final float bottom = canvas.getHeight();
+        final float top = bottom - graphHeight;
+        canvas.drawRect(0f, top, width, bottom, backgroundPaint);
+
+        // The graph is scaled so that the display's frame budget sits at a quarter of its height.
+        final float nanosToPixels = graphHeight / (frameIntervalNanos * 4f);
+        final float barWidth = width / FRAME_SAMPLES;
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            final long frameTime = frameTimes[(frameIndex + i) % FRAME_SAMPLES];
+            final float x = (i + 0.5f) * barWidth;
+            final int offset = i * 4;
+            graphLines[offset] = x;
+            graphLines[offset + 1] = bottom;
+            graphLines[offset + 2] = x;
+            graphLines[offset + 3] = bottom - Math.min(graphHeight, frameTime * nanosToPixels);
+        }
+        graphPaint.setStrokeWidth(Math.max(1f, barWidth - 1f));
+        canvas.drawLines(graphLines, 0, graphLines.length, graphPaint);
+
+        final float budgetY = bottom - frameIntervalNanos * nanosToPixels;
+        canvas.drawLine(0f, budgetY, width, budgetY, budgetPaint);
+    }
+
+    private void drawCounts(@NonNull Canvas canvas) {
+        final AnimatorContext animatorContext = this.animatorContext;
+        final float left = lineHeight / 2f;
+        float baseline = canvas.getHeight() - graphHeight - lineHeight / 2f;
+
+        this.drawnViewCount = Anime.getAnimatingViewCount();
+        baseline = drawCount(canvas, "views ", drawnViewCount, left, baseline);
+        if (animatorContext != null) {
+            this.drawnIdleCount = animatorContext.getIdleTaskCount();
+            this.drawnActiveCount = animatorContext.getActiveAnimationCount();
+            baseline = drawCount(canvas, "idle ", drawnIdleCount, left, baseline);
+            drawCount(canvas, "active ", drawnActiveCount, left, baseline);
+        } else {
+            this.drawnIdleCount = 0;
+            this.drawnActiveCount = 0;
+        }
+    }
+
+    private float drawCount(@NonNull Canvas canvas,
+                            @NonNull String label,
+                            int count,
+                            float left,
+                            float baseline) {
+        final int length = formatCount(textBuffer, label, count);
+        canvas.drawText(textBuffer, 0, length, left, baseline, textPaint);
+        return baseline - lineHeight;
+    }
+
+    /**
+     * Writes a label followed by a count into a buffer without allocating.
+     *
+     * @param buffer The buffer. Must be large enough for the label and count.
+     * @param label  The label.
+     * @param count  The count. Must not be negative.
+     * @return The number of characters written.
+     */
+    static int formatCount(@NonNull char[] buffer, @NonNull String label, int count) {
+        final int labelLength = label.length();
+        label.getChars(0, labelLength, buffer, 0);
+
+        int digits = 1;
+        for (int remaining = count / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+
+        int position = labelLength + digits;
+        int remaining = count;
+        do {
+            buffer[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+
+        return labelLength + digits;
+    }
+
+    //endregion
+}
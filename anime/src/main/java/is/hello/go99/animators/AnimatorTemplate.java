@@ -16,16 +16,22 @@
 package is.hello.go99.animators;
 
 import android.animation.Animator;
-import android.animation.ArgbEvaluator;
 import android.animation.LayoutTransition;
 import android.animation.ValueAnimator;
+import android.graphics.Matrix;
+import android.graphics.PointF;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.animation.Animation;
 import android.view.animation.Interpolator;
 
 import is.hello.go99.Anime;
+import is.hello.go99.evaluators.MatrixEvaluator;
+import is.hello.go99.evaluators.PointFEvaluatorCompat;
 import is.hello.go99.evaluators.RectEvaluatorCompat;
+import is.hello.go99.evaluators.RectFEvaluator;
 
 /**
  * Read-only class that encapsulates the attributes common to different animation classes
@@ -103,35 +109,94 @@ public class AnimatorTemplate {
     //region Vending Animators
 
     /**
-     * Creates and returns a configured ValueAnimator that will
+     * Creates and returns a configured ColorAnimator that will
      * transition between the specified array of colors.
+     * <p>
+     * Use {@link ColorAnimator#addColorUpdateListener(ColorAnimator.ColorUpdateListener)}
+     * to receive colors without auto-boxing.
      *
      * @param colors The colors to interpolate between.
-     * @return A configured ValueAnimator.
+     * @return A configured ColorAnimator.
      */
-    public @NonNull ValueAnimator createColorAnimator(@NonNull int... colors) {
-        ValueAnimator colorAnimator = ValueAnimator.ofInt((int[]) colors);
-        colorAnimator.setEvaluator(new ArgbEvaluator());
-        colorAnimator.setInterpolator(interpolator);
-        colorAnimator.setDuration(duration);
-        return colorAnimator;
+    public @NonNull ColorAnimator createColorAnimator(@NonNull int... colors) {
+        return apply(ColorAnimator.ofColors(colors));
     }
 
     /**
-     * Creates and returns a configured ValueAnimator that will
+     * Creates and returns a configured RectAnimator that will
      * transition between the specified array of rectangles.
+     * <p>
+     * Use {@link RectAnimator#addRectUpdateListener(RectAnimator.RectUpdateListener)}
+     * to receive rectangles without casting.
      *
      * @param rectangles The rectangles to interpolate between.
-     * @return A configured ValueAnimator.
+     * @return A configured RectAnimator.
      *
      * @see RectEvaluatorCompat
      */
-    public @NonNull ValueAnimator createRectAnimator(@NonNull Rect... rectangles) {
-        ValueAnimator rectAnimator = ValueAnimator.ofObject(new RectEvaluatorCompat(),
-                                                            (Object[]) rectangles);
-        rectAnimator.setInterpolator(interpolator);
-        rectAnimator.setDuration(duration);
-        return rectAnimator;
+    public @NonNull RectAnimator createRectAnimator(@NonNull Rect... rectangles) {
+        return apply(RectAnimator.ofRects(rectangles));
+    }
+
+    /**
+     * Creates and returns a configured RectAnimator that will
+     * transition between the specified packed keyframes.
+     *
+     * @param keyframes The rectangles packed as {@code left, top, right, bottom} for each keyframe.
+     * @param fractions The fraction of each keyframe, or {@code null} to space them evenly.
+     * @return A configured RectAnimator.
+     *
+     * @see RectAnimator#setKeyframes(int[], float[])
+     * @see RectEvaluatorCompat#pack(Rect...)
+     */
+    public @NonNull RectAnimator createRectAnimator(@NonNull int[] keyframes,
+                                                    @Nullable float[] fractions) {
+        return apply(RectAnimator.ofKeyframes(keyframes, fractions));
+    }
+
+    /**
+     * Creates and returns a configured ValueAnimator that will
+     * transition between the specified array of floating point rectangles.
+     * <p>
+     * The animated value is a single re-used {@code RectF} instance.
+     *
+     * @param rectangles The rectangles to interpolate between.
+     * @return A configured ValueAnimator.
+     *
+     * @see RectFEvaluator
+     */
+    public @NonNull ValueAnimator createRectFAnimator(@NonNull RectF... rectangles) {
+        return apply(ValueAnimator.ofObject(new RectFEvaluator(), (Object[]) rectangles));
+    }
+
+    /**
+     * Creates and returns a configured ValueAnimator that will
+     * transition between the specified array of points.
+     * <p>
+     * The animated value is a single re-used {@code PointF} instance.
+     *
+     * @param points The points to interpolate between.
+     * @return A configured ValueAnimator.
+     *
+     * @see PointFEvaluatorCompat
+     */
+    public @NonNull ValueAnimator createPointFAnimator(@NonNull PointF... points) {
+        return apply(ValueAnimator.ofObject(new PointFEvaluatorCompat(), (Object[]) points));
+    }
+
+    /**
+     * Creates and returns a configured ValueAnimator that will
+     * transition between the specified array of matrices.
+     * <p>
+     * The animated value is a single re-used {@code Matrix} instance.
+     *
+     * @param matrices The matrices to interpolate between.
+     * @return A configured ValueAnimator.
+     *
+     * @see MatrixEvaluator
+     */
+    public @NonNull ValueAnimator createMatrixAnimator(@NonNull Matrix... matrices) {
+        return apply(ValueAnimator.ofObject(new MatrixEvaluator(), (Object[]) matrices));
     }
 
     //endregion
@@ -179,4 +244,13 @@ public class AnimatorTemplate {
     }
 
     //endregion
+
+
+    @Override
+    public String toString() {
+        return "AnimatorTemplate{" +
+                "duration=" + duration +
+                ", interpolator=" + interpolator +
+                '}';
+    }
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.PrintWriter;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size ring buffer of the events that occur within every {@link AnimatorContext}.
+ * <p>
+ * Events are stored as primitive fields in preallocated arrays, so recording an event
+ * never allocates, takes a lock, or captures a stack trace. The trace is cheap enough to
+ * leave on in production, and can be decoded with {@link #dump(PrintWriter)} on demand,
+ * e.g. when a bug report is filed. Once the buffer fills, the oldest events are overwritten.
+ * <p>
+ * Writers claim slots through an atomic sequence number. A slot that is overwritten
+ * while it's being decoded is skipped rather than reported with mixed fields.
+ */
+public final class AnimatorTrace {
+    /**
+     * The default number of events retained by the trace.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final AtomicInteger NEXT_CONTEXT_ID = new AtomicInteger(1);
+    private static final AtomicLong NEXT_SEQUENCE = new AtomicLong(0L);
+
+    private static volatile boolean enabled = true;
+    private static volatile Buffer buffer = new Buffer(DEFAULT_CAPACITY);
+
+
+    //region Configuration
+
+    /**
+     * Specifies whether or not events should be recorded. Enabled by default.
+     *
+     * @param enabled Whether or not to record events.
+     */
+    public static void setEnabled(boolean enabled) {
+        AnimatorTrace.enabled = enabled;
+    }
+
+    /**
+     * @return Whether or not events are being recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replaces the trace's buffer with an empty buffer of a given size.
+     *
+     * @param capacity The number of events to retain. Rounded up to a power of two.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public static void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        buffer = new Buffer(size);
+    }
+
+    /**
+     * @return The number of events retained by the trace.
+     */
+    public static int getCapacity() {
+        return buffer.timestamps.length;
+    }
+
+    /**
+     * Discards every recorded event.
+     */
+    public static void clear() {
+        buffer = new Buffer(getCapacity());
+    }
+
+    //endregion
+
+
+    //region Recording
+
+    /**
+     * @return A new identifier for an animator context.
+     */
+    static int nextContextId() {
+        return NEXT_CONTEXT_ID.getAndIncrement();
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param type      The type of the event.
+     * @param contextId The identifier of the animator context the event occurred in.
+     * @param token     The name of the animation the event concerns, if any.
+     * @param value     A value whose meaning depends on the type of the event.
+     */
+    static void record(@EventType int type, int contextId, @Nullable String token, int value) {
+        if (!enabled) {
+            return;
+        }
+
+        final Buffer buffer = AnimatorTrace.buffer;
+        final long sequence = NEXT_SEQUENCE.getAndIncrement();
+        final int slot = (int) (sequence & buffer.mask);
+
+        // Invalidate the slot while its fields are inconsistent.
+        buffer.sequences[slot] = -1L;
+        buffer.timestamps[slot] = System.nanoTime();
+        buffer.types[slot] = type;
+        buffer.contextIds[slot] = contextId;
+        buffer.tokens[slot] = (token != null) ? token.hashCode() : 0;
+        buffer.names[slot] = token;
+        buffer.values[slot] = value;
+        buffer.sequences[slot] = sequence;
+    }
+
+    //endregion
+
+
+    //region Decoding
+
+    /**
+     * Decodes the recorded events, oldest first, into a given writer. Timestamps are
+     * printed in milliseconds relative to the moment the dump was started.
+     *
+     * @param writer The writer.
+     */
+    public static void dump(@NonNull PrintWriter writer) {
+        final Buffer buffer = AnimatorTrace.buffer;
+        final long now = System.nanoTime();
+        final long newest = NEXT_SEQUENCE.get() - 1L;
+        final long oldest = Math.max(0L, newest - buffer.mask);
+
+        writer.println("AnimatorTrace (capacity " + buffer.timestamps.length + "):");
+        for (long sequence = oldest; sequence <= newest; sequence++) {
+            final int slot = (int) (sequence & buffer.mask);
+            if (buffer.sequences[slot] != sequence) {
+                continue;
+            }
+
+            final long timestamp = buffer.timestamps[slot];
+            final int type = buffer.types[slot];
+            final int contextId = buffer.contextIds[slot];
+            final int token = buffer.tokens[slot];
+            final String name = buffer.names[slot];
+            final int value = buffer.values[slot];
+            if (buffer.sequences[slot] != sequence) {
+                continue;
+            }
+
+            writer.print(String.format(Locale.US, "  %10.3fms #%d %-16s", (timestamp - now) / 1e6,
+                                       contextId, getEventName(type)));
+            if (name != null) {
+                writer.print(String.format(Locale.US, " %08x '%s'", token, name));
+            }
+            writer.println(" [" + value + "]");
+        }
+        writer.flush();
+    }
+
+    /**
+     * @param type The type of an event.
+     * @return A human readable name for the event type.
+     */
+    static @NonNull String getEventName(@EventType int type) {
+        switch (type) {
+            case EVENT_CONTEXT_CREATED:
+                return "contextCreated";
+            case EVENT_BEGIN_ANIMATION:
+                return "beginAnimation";
+            case EVENT_END_ANIMATION:
+                return "endAnimation";
+            case EVENT_RUN_WHEN_IDLE:
+                return "runWhenIdle";
+            case EVENT_IDLE:
+                return "idle";
+            case EVENT_PAUSE:
+                return "pause";
+            case EVENT_RESUME:
+                return "resume";
+            case EVENT_CANCEL_ALL:
+                return "cancelAll";
+            case EVENT_END_ALL:
+                return "endAll";
+            case EVENT_OVER_BUDGET:
+                return "overBudget";
+            case EVENT_QUALITY_CHANGED:
+                return "qualityChanged";
+            case EVENT_WATCHDOG_TIMEOUT:
+                return "watchdogTimeout";
+            default:
+                return "unknown(" + type + ")";
+        }
+    }
+
+    //endregion
+
+
+    //region Events
+
+    /**
+     * An animator context was created. The token is the context's name.
+     */
+    public static final int EVENT_CONTEXT_CREATED = 0;
+
+    /**
+     * An animation began. The value is the new active animation count.
+     */
+    public static final int EVENT_BEGIN_ANIMATION = 1;
+
+    /**
+     * An animation ended. The value is the new active animation count.
+     */
+    public static final int EVENT_END_ANIMATION = 2;
+
+    /**
+     * A task was passed to {@link AnimatorContext#runWhenIdle(Runnable)}.
+     * The value is the active animation count.
+     */
+    public static final int EVENT_RUN_WHEN_IDLE = 3;
+
+    /**
+     * The context became idle. The value is the number of idle tasks run.
+     */
+    public static final int EVENT_IDLE = 4;
+
+    /**
+     * The context was paused. The value is the active animation count.
+     */
+    public static final int EVENT_PAUSE = 5;
+
+    /**
+     * The context was resumed. The value is the active animation count.
+     */
+    public static final int EVENT_RESUME = 6;
+
+    /**
+     * Every animation in the context was canceled. The value is the active animation count.
+     */
+    public static final int EVENT_CANCEL_ALL = 7;
+
+    /**
+     * Every animation in the context was ended. The value is the active animation count.
+     */
+    public static final int EVENT_END_ALL = 8;
+
+    /**
+     * A transaction exceeded the animation budget. The value is its animator count.
+     */
+    public static final int EVENT_OVER_BUDGET = 9;
+
+    /**
+     * Adaptive quality changed. The value is the new quality level.
+     */
+    public static final int EVENT_QUALITY_CHANGED = 10;
+
+    /**
+     * The watchdog reported an animation. The value is how long it was active in milliseconds.
+     */
+    public static final int EVENT_WATCHDOG_TIMEOUT = 11;
+
+    /**
+     * @see AnimatorTrace#EVENT_CONTEXT_CREATED
+     * @see AnimatorTrace#EVENT_BEGIN_ANIMATION
+     * @see AnimatorTrace#EVENT_END_ANIMATION
+     * @see AnimatorTrace#EVENT_RUN_WHEN_IDLE
+     * @see AnimatorTrace#EVENT_IDLE
+     * @see AnimatorTrace#EVENT_PAUSE
+     * @see AnimatorTrace#EVENT_RESUME
+     * @see AnimatorTrace#EVENT_CANCEL_ALL
+     * @see AnimatorTrace#EVENT_END_ALL
+     * @see AnimatorTrace#EVENT_OVER_BUDGET
+     * @see AnimatorTrace#EVENT_QUALITY_CHANGED
+     * @see AnimatorTrace#EVENT_WATCHDOG_TIMEOUT
+     */
+    @IntDef({
+            EVENT_CONTEXT_CREATED,
+            EVENT_BEGIN_ANIMATION,
+            EVENT_END_ANIMATION,
+            EVENT_RUN_WHEN_IDLE,
+            EVENT_IDLE,
+            EVENT_PAUSE,
+            EVENT_RESUME,
+            EVENT_CANCEL_ALL,
+            EVENT_END_ALL,
+            EVENT_OVER_BUDGET,
+            EVENT_QUALITY_CHANGED,
+            EVENT_WATCHDOG_TIMEOUT,
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface EventType {}
+
+    //endregion
+
+
+    private static final class Buffer {
+        final long mask;
+        final long[] sequences;
+        final long[] timestamps;
+        final int[] types;
+        final int[] contextIds;
+        final int[] tokens;
+        final String[] names;
+        final int[] values;
+
+        Buffer(int capacity) {
+            this.mask = capacity - 1;
+            this.sequences = new long[capacity];
+            Arrays.fill(sequences, -1L);
+            this.timestamps = new long[capacity];
+            this.types = new int[capacity];
+            this.contextIds = new int[capacity];
+            this.tokens = new int[capacity];
+            this.names = new String[capacity];
+            this.values = new int[capacity];
+        }
+    }
+
+
+    private AnimatorTrace() {
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Records the timeline of every {@link AnimatorContext} into a file in the Chrome trace event
+ * format, which can be opened in {@code chrome://tracing} or any compatible viewer.
+ * <p>
+ * Active animations are recorded as async spans, transaction building and starting and
+ * idle task execution as complete spans, and the active animation count as a counter.
+ * Each animator context appears as its own thread.
+ * <p>
+ * Events are recorded on the main thread into one of two preallocated chunks. Once a chunk
+ * fills, it's handed to a background thread to be written out while recording continues into
+ * the other. Events that arrive while both chunks are in use are dropped and counted.
+ */
+public final class ChromeTraceRecorder {
+    /**
+     * The default number of events in each recording chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private static final String LOG_TAG = ChromeTraceRecorder.class.getSimpleName();
+
+    static final char PHASE_ASYNC_BEGIN = 'b';
+    static final char PHASE_ASYNC_END = 'e';
+    static final char PHASE_COMPLETE = 'X';
+    static final char PHASE_INSTANT = 'i';
+    static final char PHASE_COUNTER = 'C';
+
+    private static volatile boolean recording = false;
+    private static @Nullable Session session;
+
+
+    //region Recording
+
+    /**
+     * Starts recording into a given file, replacing any existing contents.
+     *
+     * @param file The file to write the trace to.
+     * @see #start(File, int)
+     */
+    public static void start(@NonNull File file) {
+        start(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Starts recording into a given file, replacing any existing contents.
+     * Stops any recording already in progress.
+     *
+     * @param file      The file to write the trace to.
+     * @param chunkSize The number of events in each recording chunk.
+     */
+    public static void start(@NonNull File file, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        stop();
+
+        session = new Session(file, chunkSize);
+        recording = true;
+    }
+
+    /**
+     * Stops recording, and finishes writing the trace file in the background.
+     *
+     * @return A future that completes once the file has been written,
+     *         or {@code null} if the recorder was not recording.
+     */
+    public static @Nullable Future<?> stop() {
+        if (session == null) {
+            return null;
+        }
+
+        recording = false;
+        final Future<?> finished = session.finish();
+        session = null;
+        return finished;
+    }
+
+    /**
+     * @return Whether or not the recorder is recording.
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * @return The number of events dropped by the current recording.
+     */
+    public static int getDroppedEventCount() {
+        final Session session = ChromeTraceRecorder.session;
+        return (session != null) ? session.droppedEventCount : 0;
+    }
+
+    /**
+     * Records an event. Has no effect if the recorder is not recording.
+     *
+     * @param phase         The phase of the event.
+     * @param contextId     The identifier of the animator context.
+     * @param contextName   The name of the animator context.
+     * @param name          The name of the event.
+     * @param startNanos    When the event started, from {@link System#nanoTime()}.
+     * @param durationNanos The duration of complete events.
+     * @param value         The value of counter events.
+     */
+    static void record(char phase,
+                       int contextId,
+                       @NonNull String contextName,
+                       @NonNull String name,
+                       long startNanos,
+                       long durationNanos,
+                       int value) {
+        final Session session = ChromeTraceRecorder.session;
+        if (session != null) {
+            session.record(phase, contextId, contextName, name, startNanos, durationNanos, value);
+        }
+    }
+
+    //endregion
+
+
+    //region Writing
+
+    /**
+     * Writes a string as a JSON string literal.
+     */
+    static void writeString(@NonNull Writer writer, @NonNull String string) throws IOException {
+        writer.write('"');
+        for (int i = 0, length = string.length(); i < length; i++) {
+            final char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format(Locale.US, "\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                    break;
+            }
+        }
+        writer.write('"');
+    }
+
+    //endregion
+
+
+    private static final class Chunk {
+        final char[] phases;
+        final int[] contextIds;
+        final String[] contextNames;
+        final String[] names;
+        final long[] starts;
+        final long[] durations;
+        final int[] values;
+        int size = 0;
+        volatile boolean writing = false;
+
+        Chunk(int capacity) {
+            this.phases = new char[capacity];
+            this.contextIds = new int[capacity];
+            this.contextNames = new String[capacity];
+            this.names = new String[capacity];
+            this.starts = new long[capacity];
+            this.durations = new long[capacity];
+            this.values = new int[capacity];
+        }
+
+        boolean isFull() {
+            return (size == phases.length);
+        }
+    }
+
+    private static final class Session {
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+        private final File file;
+        private final long startedAt = System.nanoTime();
+        private final Chunk[] chunks;
+        private final Set<Integer> namedContexts = new HashSet<>();
+        private int current = 0;
+        private @Nullable Writer writer;
+        private boolean firstEvent = true;
+        volatile int droppedEventCount = 0;
+
+        Session(@NonNull File file, int chunkSize) {
+            this.file = file;
+            this.chunks = new Chunk[] { new Chunk(chunkSize), new Chunk(chunkSize) };
+        }
+
+        void record(char phase,
+                    int contextId,
+                    @NonNull String contextName,
+                    @NonNull String name,
+                    long startNanos,
+                    long durationNanos,
+                    int value) {
+            Chunk chunk = chunks[current];
+            if (chunk.isFull()) {
+                final Chunk next = chunks[current ^ 1];
+                if (next.writing) {
+                    this.droppedEventCount++;
+                    return;
+                }
+
+                flush(chunk);
+                this.current ^= 1;
+                chunk = next;
+            }
+
+            final int index = chunk.size;
+            chunk.phases[index] = phase;
+            chunk.contextIds[index] = contextId;
+            chunk.contextNames[index] = contextName;
+            chunk.names[index] = name;
+            chunk.starts[index] = startNanos;
+            chunk.durations[index] = durationNanos;
+            chunk.values[index] = value;
+            chunk.size = index + 1;
+        }
+
+        private void flush(final @NonNull Chunk chunk) {
+            chunk.writing = true;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    write(chunk);
+                }
+            });
+        }
+
+        Future<?> finish() {
+            final Chunk chunk = chunks[current];
+            if (chunk.size > 0) {
+                flush(chunk);
+            }
+
+            final Future<?> finished = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    close();
+                }
+            });
+            executor.shutdown();
+            return finished;
+        }
+
+        private void write(@NonNull Chunk chunk) {
+            try {
+                openWriter();
+
+                for (int i = 0; i < chunk.size; i++) {
+                    final int contextId = chunk.contextIds[i];
+                    if (namedContexts.add(contextId)) {
+                        writeSeparator();
+                        writer.write("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":0,\"tid\":" +
+                                             contextId + ",\"args\":{\"name\":");
+                        writeString(writer, chunk.contextNames[i]);
+                        writer.write("}}");
+                    }
+
+                    writeSeparator();
+                    writeEvent(chunk, i);
+                }
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Could not write trace to " + file, e);
+            } finally {
+                for (int i = 0; i < chunk.size; i++) {
+                    chunk.contextNames[i] = null;
+                    chunk.names[i] = null;
+                }
+                chunk.size = 0;
+                chunk.writing = false;
+            }
+        }
+
+        private void openWriter() throws IOException {
+            if (writer == null) {
+                this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+                writer.write("{\"traceEvents\":[\n");
+            }
+        }
+
+        private void writeSeparator() throws IOException {
+            if (firstEvent) {
+                this.firstEvent = false;
+            } else {
+                //noinspection ConstantConditions
+                writer.write(",\n");
+            }
+        }
+
+        private void writeEvent(@NonNull Chunk chunk, int index) throws IOException {
+            final Writer writer = this.writer;
+            final char phase = chunk.phases[index];
+            final String name = chunk.names[index];
+
+            //noinspection ConstantConditions
+            writer.write("{\"ph\":\"");
+            writer.write(phase);
+            writer.write("\",\"name\":");
+            writeString(writer, name);
+            writer.write(",\"pid\":0,\"tid\":");
+            writer.write(Integer.toString(chunk.contextIds[index]));
+            writer.write(",\"ts\":");
+            writer.write(formatMicros(chunk.starts[index] - startedAt));
+
+            switch (phase) {
+                case PHASE_ASYNC_BEGIN:
+                case PHASE_ASYNC_END:
+                    writer.write(",\"cat\":\"animation\",\"id\":\"");
+                    writer.write(Integer.toHexString(name.hashCode()));
+                    writer.write('"');
+                    break;
+                case PHASE_COMPLETE:
+                    writer.write(",\"dur\":");
+                    writer.write(formatMicros(chunk.durations[index]));
+                    break;
+                case PHASE_INSTANT:
+                    writer.write(",\"s\":\"t\"");
+                    break;
+                case PHASE_COUNTER:
+                    writer.write(",\"args\":{\"value\":");
+                    writer.write(Integer.toString(chunk.values[index]));
+                    writer.write('}');
+                    break;
+            }
+            writer.write('}');
+        }
+
+        private void close() {
+            try {
+                openWriter();
+                //noinspection ConstantConditions
+                writer.write("\n]}\n");
+                writer.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Could not finish trace " + file, e);
+            }
+            this.writer = null;
+        }
+    }
+
+    private static @NonNull String formatMicros(long nanos) {
+        return String.format(Locale.US, "%.3f", nanos / 1000.0);
+    }
+
+
+    private ChromeTraceRecorder() {
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.animation.ValueAnimator;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+
+import is.hello.go99.Anime;
+
+/**
+ * A value animator that transitions between a series of colors without auto-boxing.
+ * <p>
+ * The animator runs over a primitive {@code float} fraction, and computes the current
+ * color with {@link Anime#interpolateColors(float, int, int)}. Colors are delivered to
+ * {@link ColorUpdateListener}s as an {@code int}. {@link #getAnimatedValue()} is supported
+ * for compatibility with {@code ArgbEvaluator} based animators, but will box the color.
+ *
+ * @see AnimatorTemplate#createColorAnimator(int...)
+ */
+public class ColorAnimator extends ValueAnimator implements ValueAnimator.AnimatorUpdateListener {
+    private @NonNull @ColorInt int[] colors;
+    private @ColorInt int animatedColor;
+    private @NonNull ArrayList<ColorUpdateListener> colorUpdateListeners = new ArrayList<>();
+
+
+    //region Lifecycle
+
+    /**
+     * Creates a color animator that will transition between the given colors.
+     *
+     * @param colors The colors to interpolate between. Must contain at least one color.
+     * @return A new color animator.
+     */
+    public static ColorAnimator ofColors(@NonNull @ColorInt int... colors) {
+        final ColorAnimator animator = new ColorAnimator();
+        animator.setColors(colors);
+        return animator;
+    }
+
+    /**
+     * Constructs a color animator with no colors.
+     * <p>
+     * {@link #setColors(int...)} must be called before the animator is started.
+     */
+    public ColorAnimator() {
+        this.colors = new int[] { 0 };
+        setFloatValues(0f, 1f);
+        addUpdateListener(this);
+    }
+
+    //endregion
+
+
+    //region Attributes
+
+    /**
+     * Sets the colors the animator will transition between. The colors
+     * are spaced evenly over the duration of the animator.
+     *
+     * @param colors The colors. Must contain at least one color.
+     * @throws IllegalArgumentException if {@code colors} is empty.
+     */
+    public void setColors(@NonNull @ColorInt int... colors) {
+        if (colors.length == 0) {
+            throw new IllegalArgumentException("ColorAnimator requires at least one color");
+        }
+
+        this.colors = colors;
+        this.animatedColor = colors[0];
+    }
+
+    /**
+     * @return The most recently calculated color of the animator.
+     */
+    public @ColorInt int getAnimatedColor() {
+        return animatedColor;
+    }
+
+    /**
+     * Provided for compatibility with {@code ArgbEvaluator} based animators.
+     * Prefer {@link #getAnimatedColor()}, which does not auto-box.
+     *
+     * @return The most recently calculated color of the animator.
+     */
+    @Override
+    public Object getAnimatedValue() {
+        return animatedColor;
+    }
+
+    //endregion
+
+
+    //region Listeners
+
+    public void addColorUpdateListener(@NonNull ColorUpdateListener listener) {
+        colorUpdateListeners.add(listener);
+    }
+
+    public void removeColorUpdateListener(@NonNull ColorUpdateListener listener) {
+        colorUpdateListeners.remove(listener);
+    }
+
+    /**
+     * Extends the default implementation to keep the animator's
+     * internal update listener registered.
+     */
+    @Override
+    public void removeAllUpdateListeners() {
+        super.removeAllUpdateListeners();
+        colorUpdateListeners.clear();
+        addUpdateListener(this);
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        final @ColorInt int color = evaluate(getAnimatedFraction(), colors);
+        this.animatedColor = color;
+
+        for (int i = 0, size = colorUpdateListeners.size(); i < size; i++) {
+            colorUpdateListeners.get(i).onColorUpdate(this, color);
+        }
+    }
+
+    //endregion
+
+
+    /**
+     * Calculates the color for a given fraction over an evenly spaced series of colors.
+     *
+     * @param fraction The fraction. Values outside of {@code 0..1} extrapolate the outer pairs.
+     * @param colors The colors to interpolate between.
+     * @return The color.
+     */
+    static @ColorInt int evaluate(float fraction, @NonNull @ColorInt int[] colors) {
+        final int last = colors.length - 1;
+        if (last == 0) {
+            return colors[0];
+        }
+
+        final float position = fraction * last;
+        final int segment = Math.max(0, Math.min(last - 1, (int) position));
+        return Anime.interpolateColors(position - segment, colors[segment], colors[segment + 1]);
+    }
+
+
+    @Override
+    public ColorAnimator clone() {
+        final ColorAnimator animator = (ColorAnimator) super.clone();
+
+        animator.removeUpdateListener(this);
+        animator.addUpdateListener(animator);
+        animator.colors = colors.clone();
+        animator.colorUpdateListeners = new ArrayList<>(colorUpdateListeners);
+
+        return animator;
+    }
+
+
+    /**
+     * Receives color updates from a {@link ColorAnimator} without auto-boxing.
+     */
+    public interface ColorUpdateListener {
+        void onColorUpdate(@NonNull ColorAnimator animator, @ColorInt int color);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * Observes the intervals between frames through {@code Choreographer},
+ * and reports how many frames were dropped between each pair.
+ * <p>
+ * The display's frame interval is estimated as the median of the most recent
+ * intervals, so dropped frames are counted correctly on displays that refresh
+ * faster than 60Hz. Until enough intervals have been observed, a 60Hz display
+ * is assumed.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class FrameMonitor implements Choreographer.FrameCallback {
+    /**
+     * The interval between frames on a 60Hz display.
+     */
+    static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+    /**
+     * The number of intervals the frame interval estimate is the median of.
+     * Odd so the median is always an observed interval.
+     */
+    static final int INTERVAL_SAMPLES = 15;
+
+    private final Listener listener;
+    private final long[] intervals = new long[INTERVAL_SAMPLES];
+    private final long[] sortedIntervals = new long[INTERVAL_SAMPLES];
+    private int intervalCount = 0;
+    private int intervalIndex = 0;
+    private long frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    private boolean running = false;
+    private long lastFrameTimeNanos = 0L;
+
+    /**
+     * @return Whether or not frame monitoring is available on the current device.
+     */
+    static boolean isSupported() {
+        return (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN);
+    }
+
+    FrameMonitor(@NonNull Listener listener) {
+        this.listener = listener;
+    }
+
+    void start() {
+        if (!running) {
+            this.running = true;
+            this.lastFrameTimeNanos = 0L;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void stop() {
+        if (running) {
+            this.running = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return The estimated interval between frames on the current display.
+     */
+    long getFrameIntervalNanos() {
+        return frameIntervalNanos;
+    }
+
+    /**
+     * Calculates the interval between frames on a display.
+     *
+     * @param refreshRate The display's refresh rate in frames per second,
+     *                    as reported by {@link android.view.Display#getRefreshRate()}.
+     * @return The interval in nanoseconds, or {@link #DEFAULT_FRAME_INTERVAL_NANOS}
+     *         if the refresh rate is not plausible.
+     */
+    static long calculateFrameInterval(float refreshRate) {
+        if (refreshRate < 1f) {
+            return DEFAULT_FRAME_INTERVAL_NANOS;
+        }
+        return Math.round(1000000000.0 / refreshRate);
+    }
+
+    /**
+     * Calculates the number of frames dropped within an interval between two frames.
+     *
+     * @param intervalNanos      The interval in nanoseconds.
+     * @param frameIntervalNanos The display's interval between frames in nanoseconds.
+     * @return The number of frames that should have been rendered within the interval.
+     */
+    static int calculateDroppedFrames(long intervalNanos, long frameIntervalNanos) {
+        final long frames = (intervalNanos + frameIntervalNanos / 2) / frameIntervalNanos;
+        return (int) Math.max(0L, frames - 1L);
+    }
+
+    /**
+     * Adds an observed interval to the frame interval estimate. The estimate only
+     * changes once {@link #INTERVAL_SAMPLES} intervals have been observed, so that
+     * a few dropped frames right after starting cannot skew it.
+     *
+     * @param intervalNanos The interval in nanoseconds.
+     */
+    private void sampleInterval(long intervalNanos) {
+        intervals[intervalIndex] = intervalNanos;
+        this.intervalIndex = (intervalIndex + 1) % INTERVAL_SAMPLES;
+        if (intervalCount < INTERVAL_SAMPLES) {
+            this.intervalCount++;
+            if (intervalCount < INTERVAL_SAMPLES) {
+                return;
+            }
+        }
+
+        // Insertion sort, the sample count is small and this must not allocate.
+        for (int i = 0; i < INTERVAL_SAMPLES; i++) {
+            final long interval = intervals[i];
+            int j = i - 1;
+            while (j >= 0 && sortedIntervals[j] > interval) {
+                sortedIntervals[j + 1] = sortedIntervals[j];
+                j--;
+            }
+            sortedIntervals[j + 1] = interval;
+        }
+        this.frameIntervalNanos = Math.max(1L, sortedIntervals[INTERVAL_SAMPLES / 2]);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+
+        if (lastFrameTimeNanos != 0L) {
+            final long intervalNanos = frameTimeNanos - lastFrameTimeNanos;
+            sampleInterval(intervalNanos);
+            listener.onFrameRendered(calculateDroppedFrames(intervalNanos, frameIntervalNanos));
+        }
+        this.lastFrameTimeNanos = frameTimeNanos;
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+
+    interface Listener {
+        /**
+         * Called after each frame is rendered while the monitor is running.
+         *
+         * @param droppedFrames The number of frames dropped since the previous frame.
+         */
+        void onFrameRendered(int droppedFrames);
+    }
+}
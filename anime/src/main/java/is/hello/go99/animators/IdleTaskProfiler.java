@@ -0,0 +1,234 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the tasks run by an {@link AnimatorContext} when it becomes idle.
+ * <p>
+ * Tasks are keyed by their class, so each anonymous runnable passed to
+ * {@link AnimatorContext#runWhenIdle(Runnable)} is profiled as its own call site.
+ * Each key accumulates a histogram of execution times with power-of-two microsecond
+ * buckets. Only the first task of each class allocates; recording every task after
+ * that is allocation free.
+ *
+ * @see AnimatorContext#setIdleTaskProfiler(IdleTaskProfiler)
+ */
+public class IdleTaskProfiler {
+    /**
+     * The number of buckets in each histogram. Bucket {@code n} counts executions that took
+     * at least {@code 2^(n-1)} and less than {@code 2^n} microseconds. The first bucket counts
+     * executions under a microsecond, and the last bucket counts everything above its floor.
+     */
+    public static final int BUCKET_COUNT = 20;
+
+    private final long slowTaskThresholdNanos;
+    private final @Nullable SlowTaskListener slowTaskListener;
+    private final Map<Class<?>, Histogram> histograms = new HashMap<>();
+
+    /**
+     * Constructs an idle task profiler.
+     *
+     * @param slowTaskThresholdNanos The execution time above which a task is considered slow.
+     * @param slowTaskListener       The listener to notify of slow tasks, if any.
+     */
+    public IdleTaskProfiler(long slowTaskThresholdNanos,
+                            @Nullable SlowTaskListener slowTaskListener) {
+        this.slowTaskThresholdNanos = slowTaskThresholdNanos;
+        this.slowTaskListener = slowTaskListener;
+    }
+
+    /**
+     * Constructs an idle task profiler that records histograms without reporting slow tasks.
+     */
+    public IdleTaskProfiler() {
+        this(Long.MAX_VALUE, null);
+    }
+
+
+    //region Recording
+
+    /**
+     * Records the execution of a task.
+     *
+     * @param animatorContext The context that ran the task.
+     * @param task            The task.
+     * @param durationNanos   How long the task took to run.
+     */
+    void record(@NonNull AnimatorContext animatorContext,
+                @NonNull Runnable task,
+                long durationNanos) {
+        final Class<?> key = task.getClass();
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new Histogram();
+            histograms.put(key, histogram);
+        }
+        histogram.record(durationNanos);
+
+        if (slowTaskListener != null && durationNanos > slowTaskThresholdNanos) {
+            slowTaskListener.onSlowIdleTask(animatorContext, task, durationNanos);
+        }
+    }
+
+    /**
+     * @param durationNanos An execution time.
+     * @return The index of the histogram bucket the execution time belongs in.
+     */
+    static int getBucket(long durationNanos) {
+        final long micros = durationNanos / 1000L;
+        final int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Discards every recorded histogram.
+     */
+    public void reset() {
+        histograms.clear();
+    }
+
+    //endregion
+
+
+    //region Reading
+
+    /**
+     * @return The classes of every task that has been profiled.
+     */
+    public @NonNull List<Class<?>> getTaskClasses() {
+        return new ArrayList<>(histograms.keySet());
+    }
+
+    /**
+     * @param taskClass The class of a task.
+     * @return The histogram for the class, or {@code null} if no such task has been profiled.
+     */
+    public @Nullable Histogram getHistogram(@NonNull Class<?> taskClass) {
+        return histograms.get(taskClass);
+    }
+
+    /**
+     * Prints a summary of every histogram, slowest tasks first.
+     *
+     * @param writer The writer.
+     */
+    public void dump(@NonNull PrintWriter writer) {
+        final List<Map.Entry<Class<?>, Histogram>> entries = new ArrayList<>(histograms.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<Class<?>, Histogram>>() {
+            @Override
+            public int compare(Map.Entry<Class<?>, Histogram> lhs, Map.Entry<Class<?>, Histogram> rhs) {
+                final long lhsMax = lhs.getValue().getMaxNanos();
+                final long rhsMax = rhs.getValue().getMaxNanos();
+                return (lhsMax < rhsMax) ? 1 : (lhsMax == rhsMax ? 0 : -1);
+            }
+        });
+
+        writer.println("Idle tasks:");
+        for (final Map.Entry<Class<?>, Histogram> entry : entries) {
+            final Histogram histogram = entry.getValue();
+            writer.println(String.format(Locale.US, "  %s: count=%d mean=%.3fms max=%.3fms",
+                                         entry.getKey().getName(), histogram.getCount(),
+                                         histogram.getMeanNanos() / 1e6,
+                                         histogram.getMaxNanos() / 1e6));
+        }
+        writer.flush();
+    }
+
+    //endregion
+
+
+    /**
+     * The execution times recorded for a single class of idle task.
+     */
+    public static final class Histogram {
+        private final int[] buckets = new int[BUCKET_COUNT];
+        private int count = 0;
+        private long totalNanos = 0L;
+        private long maxNanos = 0L;
+
+        void record(long durationNanos) {
+            buckets[getBucket(durationNanos)]++;
+            this.count++;
+            this.totalNanos += durationNanos;
+            if (durationNanos > maxNanos) {
+                this.maxNanos = durationNanos;
+            }
+        }
+
+        /**
+         * @param bucket The index of a bucket.
+         * @return The number of executions in the bucket.
+         * @see IdleTaskProfiler#BUCKET_COUNT
+         */
+        public int getBucketCount(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * @return The number of executions recorded.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return The total execution time.
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return The mean execution time.
+         */
+        public long getMeanNanos() {
+            return (count > 0) ? totalNanos / count : 0L;
+        }
+
+        /**
+         * @return The longest execution time.
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+
+    /**
+     * Receives idle tasks that took longer than a profiler's threshold to run.
+     */
+    public interface SlowTaskListener {
+        /**
+         * @param animatorContext The context that ran the task.
+         * @param task            The task.
+         * @param durationNanos   How long the task took to run.
+         */
+        void onSlowIdleTask(@NonNull AnimatorContext animatorContext,
+                            @NonNull Runnable task,
+                            long durationNanos);
+    }
+}
@@ -19,7 +19,9 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.TimeInterpolator;
 import android.annotation.TargetApi;
+import android.graphics.Rect;
 import android.os.Build;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.view.View;
@@ -31,7 +33,9 @@ import java.util.List;
 import java.util.Map;
 
 import is.hello.go99.Anime;
+import is.hello.go99.R;
 import is.hello.go99.ViewVisibility;
+import is.hello.go99.core.ActivityCounter;
 
 /**
  * A wrapper around {@link ViewPropertyAnimator} that descends from {@link Animator}
@@ -39,6 +43,16 @@ import is.hello.go99.ViewVisibility;
  */
 @NotBindable
 public class MultiAnimator extends Animator implements Animator.AnimatorListener {
+    /**
+     * Scratch rect for visibility culling. Only accessed from the main thread.
+     */
+    private static final Rect CULLING_RECT = new Rect();
+
+    /**
+     * The distance within which a property is considered to already be at its target value.
+     */
+    private static final float NO_OP_EPSILON = 0.001f;
+
     private Map<Property, Float> properties = new HashMap<>();
     private boolean hasFiredEndListener = false;
 
@@ -50,6 +64,44 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
     private long duration = Anime.DURATION_NORMAL;
     private long startDelay = 0;
     private TimeInterpolator interpolator = Anime.INTERPOLATOR_DEFAULT;
+    private boolean wantsLayer = false;
+    private boolean cullsInvisibleTarget = false;
+    private boolean skipsNextStart = false;
+    private boolean reducesProperties = false;
+    private boolean runsOnRenderThread = false;
+
+    private boolean runningPropertyAnimator = false;
+    private boolean paused = false;
+    private boolean resumesOnRenderThread = false;
+    private boolean suppressesNextStart = false;
+    private long playStartedAt = 0L;
+    private long pausedPlayTime = 0L;
+
+    /**
+     * The animator context a hardware layer was acquired from, if any.
+     * Tracked separately in case the animator context changes mid-animation.
+     */
+    private @Nullable AnimatorContext layerContext;
+    private boolean hasLayer = false;
+
+    /**
+     * The token identifying the current run, and the animator context it was begun in.
+     */
+    private int animationToken = ActivityCounter.NO_TOKEN;
+    private @Nullable AnimatorContext animationContext;
+
+    /**
+     * The RenderThread animators currently running for the multi-animator, if any.
+     */
+    private @Nullable List<Animator> renderThreadAnimators;
+
+    /**
+     * The values the target had when the RenderThread animators started.
+     */
+    private @Nullable Map<Property, Float> renderThreadStartValues;
+    private long renderThreadStartedAt = 0L;
+    private long renderThreadDuration = 0L;
+    private long renderThreadDelay = 0L;
 
     private List<WillRunListener> willStartListeners = new ArrayList<>();
 
@@ -205,6 +257,60 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
         return target;
     }
 
+    /**
+     * Specifies that the multi-animator should skip animating if its target cannot be seen
+     * when the animator starts. A target cannot be seen if it, or one of its ancestors, is not
+     * visible, or if it is fully clipped or off-screen.
+     * <p>
+     * Skipped animators apply their end state immediately, the same way {@link #end()} does,
+     * and notify their listeners of start and end without ever becoming active within their
+     * animator context.
+     *
+     * @return The multi-animator.
+     * @see AnimatorContext#OPTION_CULL_INVISIBLE
+     */
+    public MultiAnimator withVisibilityCulling() {
+        this.cullsInvisibleTarget = true;
+        return this;
+    }
+
+    /**
+     * Specifies that the multi-animator should run on the RenderThread where the platform
+     * allows, so that it continues smoothly while the main thread is busy. Applies to
+     * animations that only change alpha and translation of hardware accelerated views
+     * on Lollipop and later. All other animations run on the main thread as usual.
+     * <p>
+     * While running on the RenderThread, the property getters of the target view report
+     * the starting values of the animation. The final values are applied when the animation
+     * ends. If the animation is canceled, or another multi-animator starts for the same view,
+     * the target view is given the values the animation had reached.
+     *
+     * @return The multi-animator.
+     * @see AnimatorContext#OPTION_RENDER_THREAD
+     */
+    public MultiAnimator withRenderThread() {
+        this.runsOnRenderThread = true;
+        return this;
+    }
+
+    /**
+     * Specifies that the multi-animator should render its target into a hardware
+     * layer for the duration of the animation. Applies to animations that change
+     * alpha, scale, or rotation. Animations that only change alpha will not use
+     * a layer if the target reports no overlapping rendering.
+     * <p>
+     * If the multi-animator is bound to an animator context, the layer counts
+     * against the context's hardware layer budget. When the budget has been
+     * exhausted, the animation runs without a layer.
+     *
+     * @return The multi-animator.
+     * @see AnimatorContext#setHardwareLayerBudget(int)
+     */
+    public MultiAnimator withLayer() {
+        this.wantsLayer = true;
+        return this;
+    }
+
     @Override
     public boolean isRunning() {
         return (target != null && Anime.isAnimating(target));
@@ -282,6 +388,11 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
 
     @Override
     public void onAnimationStart(Animator animation) {
+        if (suppressesNextStart) {
+            this.suppressesNextStart = false;
+            return;
+        }
+
         final ArrayList<AnimatorListener> listeners = getListeners();
         if (listeners != null) {
             // The Animator contract requires that removing listeners
@@ -300,6 +411,9 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
 
     @Override
     public void onAnimationEnd(Animator animation) {
+        releaseLayer();
+        this.runningPropertyAnimator = false;
+
         if (hasFiredEndListener) {
             return;
         }
@@ -313,8 +427,12 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
             }
         }
 
-        if (animatorContext != null) {
-            animatorContext.endAnimation(toString());
+        if (animationContext != null) {
+            animationContext.endAnimation(animationToken);
+            animationContext.untrackAnimator(this);
+            animationContext.removeRunningAnimator(this);
+            this.animationContext = null;
+            this.animationToken = ActivityCounter.NO_TOKEN;
         }
 
         Anime.removeAnimatingView(target);
@@ -344,13 +462,376 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
     //endregion
 
 
+    //region Culling
+
+    /**
+     * Causes the next call to {@link #start()} to apply the animator's end state
+     * immediately instead of animating. Used to enforce animation budgets.
+     */
+    void skipNextStart() {
+        this.skipsNextStart = true;
+    }
+
+    /**
+     * Causes the multi-animator to apply scale and rotation immediately when
+     * started, only animating alpha and position. Used by adaptive quality.
+     */
+    void reduceProperties() {
+        this.reducesProperties = true;
+    }
+
+    private boolean isTargetVisible() {
+        return (target.isShown() && target.getGlobalVisibleRect(CULLING_RECT));
+    }
+
+    private void skipAnimation() {
+        cancelRenderThreadAnimations(target);
+        if (Anime.isAnimating(target)) {
+            target.animate().cancel();
+        }
+        applyEndState();
+
+        dispatchSkipped(false);
+    }
+
+    /**
+     * Notifies the multi-animator's listeners of an animation that never ran.
+     *
+     * @param canceled Whether or not the listeners should be told the animation was canceled.
+     */
+    private void dispatchSkipped(boolean canceled) {
+        final ArrayList<AnimatorListener> listeners = getListeners();
+        if (listeners != null) {
+            final AnimatorListener[] listenersCopy =
+                    listeners.toArray(new AnimatorListener[listeners.size()]);
+            for (AnimatorListener listener : listenersCopy) {
+                listener.onAnimationStart(this);
+            }
+            if (canceled) {
+                for (AnimatorListener listener : listenersCopy) {
+                    listener.onAnimationCancel(this);
+                }
+            }
+            for (AnimatorListener listener : listenersCopy) {
+                listener.onAnimationEnd(this);
+            }
+        }
+    }
+
+    //endregion
+
+
+    //region Batching
+
+    /**
+     * Takes the place of an older multi-animator for the same target that was scheduled
+     * to start within the same frame. The older multi-animator's will start listeners are
+     * run, any of its properties this multi-animator doesn't animate are carried over, and
+     * its listeners are told it was canceled, as they would have been had it started.
+     *
+     * @param older The multi-animator being superseded.
+     */
+    void supersede(@NonNull MultiAnimator older) {
+        for (final WillRunListener willStart : older.willStartListeners) {
+            willStart.onMultiAnimatorWillRun(older);
+        }
+
+        for (final Map.Entry<Property, Float> entry : older.properties.entrySet()) {
+            if (!properties.containsKey(entry.getKey())) {
+                properties.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        older.dispatchSkipped(true);
+    }
+
+    //endregion
+
+
+    //region RenderThread
+
+    private boolean canRunOnRenderThread() {
+        if (!runsOnRenderThread || Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP ||
+                !target.isHardwareAccelerated()) {
+            return false;
+        }
+
+        for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
+            final Property property = entry.getKey();
+            if (isAtTarget(property, entry.getValue())) {
+                continue;
+            }
+
+            switch (property) {
+                case TRANSLATION_X:
+                case TRANSLATION_Y:
+                case ALPHA:
+                    break;
+                default:
+                    return false;
+            }
+        }
+
+        return RenderNodeAnimatorCompat.isAvailable();
+    }
+
+    private @Nullable List<Animator> createRenderThreadAnimators(long duration, long startDelay) {
+        final List<Animator> animators = new ArrayList<>(properties.size());
+        final Map<Property, Float> startValues = new HashMap<>(properties.size());
+        for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
+            final Property property = entry.getKey();
+            final float value = entry.getValue();
+            if (isAtTarget(property, value)) {
+                continue;
+            }
+
+            final int renderProperty;
+            switch (property) {
+                case TRANSLATION_X:
+                    renderProperty = RenderNodeAnimatorCompat.TRANSLATION_X;
+                    break;
+                case TRANSLATION_Y:
+                    renderProperty = RenderNodeAnimatorCompat.TRANSLATION_Y;
+                    break;
+                case ALPHA:
+                    renderProperty = RenderNodeAnimatorCompat.ALPHA;
+                    break;
+                default:
+                    return null;
+            }
+
+            final Animator animator = RenderNodeAnimatorCompat.create(target, renderProperty, value);
+            if (animator == null) {
+                return null;
+            }
+
+            animator.setDuration(duration);
+            animator.setStartDelay(startDelay);
+            animator.setInterpolator(interpolator);
+            animators.add(animator);
+            startValues.put(property, getProperty(property));
+        }
+
+        final RenderThreadListener listener = new RenderThreadListener(animators.size());
+        for (final Animator animator : animators) {
+            animator.addListener(listener);
+        }
+
+        this.renderThreadStartValues = startValues;
+        return animators;
+    }
+
+    private void startRenderThreadAnimators(@NonNull List<Animator> animators,
+                                            long duration,
+                                            long startDelay) {
+        this.renderThreadAnimators = animators;
+        this.renderThreadStartedAt = SystemClock.uptimeMillis();
+        this.renderThreadDuration = duration;
+        this.renderThreadDelay = startDelay;
+        target.setTag(R.id.anime_render_thread_animator, this);
+        for (final Animator animator : animators) {
+            animator.start();
+        }
+    }
+
+    /**
+     * Cancels the RenderThread animations of whichever multi-animator is running them on a
+     * given view, giving the view the values the animations had reached. Canceling happens
+     * synchronously, so the property getters of the view are accurate once this returns.
+     *
+     * @param target The view.
+     */
+    private static void cancelRenderThreadAnimations(@NonNull View target) {
+        final MultiAnimator owner = (MultiAnimator) target.getTag(R.id.anime_render_thread_animator);
+        if (owner != null) {
+            owner.cancelRenderThreadAnimators();
+        }
+    }
+
+    private void cancelRenderThreadAnimators() {
+        final List<Animator> animators = detachRenderThreadAnimators();
+        if (animators != null) {
+            applyRenderThreadProgress();
+            for (final Animator animator : animators) {
+                animator.cancel();
+            }
+            onAnimationCancel(this);
+            onAnimationEnd(this);
+        }
+    }
+
+    private void endRenderThreadAnimators() {
+        final List<Animator> animators = detachRenderThreadAnimators();
+        if (animators != null) {
+            this.renderThreadStartValues = null;
+            for (final Animator animator : animators) {
+                animator.cancel();
+            }
+        }
+    }
+
+    /**
+     * Stops the multi-animator from receiving the events of its RenderThread animators.
+     *
+     * @return The animators, or {@code null} if none were running.
+     */
+    private @Nullable List<Animator> detachRenderThreadAnimators() {
+        final List<Animator> animators = renderThreadAnimators;
+        if (animators == null) {
+            return null;
+        }
+
+        this.renderThreadAnimators = null;
+        if (target.getTag(R.id.anime_render_thread_animator) == this) {
+            target.setTag(R.id.anime_render_thread_animator, null);
+        }
+        for (final Animator animator : animators) {
+            animator.removeAllListeners();
+        }
+        return animators;
+    }
+
+    /**
+     * Gives the target the values its RenderThread animations have reached. RenderThread
+     * animators don't report their values, so they're derived from the time elapsed.
+     */
+    private void applyRenderThreadProgress() {
+        if (renderThreadStartValues == null) {
+            return;
+        }
+
+        final long playTime = SystemClock.uptimeMillis() - renderThreadStartedAt - renderThreadDelay;
+        if (playTime > 0L) {
+            final float fraction = (renderThreadDuration > 0L)
+                    ? Math.min(1f, playTime / (float) renderThreadDuration)
+                    : 1f;
+            final float interpolated = interpolator.getInterpolation(fraction);
+            for (final Map.Entry<Property, Float> entry : renderThreadStartValues.entrySet()) {
+                final Property property = entry.getKey();
+                final float start = entry.getValue();
+                applyProperty(property, start + (properties.get(property) - start) * interpolated);
+            }
+        }
+        this.renderThreadStartValues = null;
+    }
+
+    /**
+     * Forwards the events of a group of RenderThread animators to the multi-animator.
+     */
+    private class RenderThreadListener extends AnimatorListenerAdapter {
+        private int remaining;
+        private boolean canceled = false;
+
+        RenderThreadListener(int count) {
+            this.remaining = count;
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            if (!canceled) {
+                this.canceled = true;
+                applyRenderThreadProgress();
+                MultiAnimator.this.onAnimationCancel(MultiAnimator.this);
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            animation.removeListener(this);
+            if (--remaining > 0) {
+                return;
+            }
+
+            detachRenderThreadAnimators();
+            if (!canceled) {
+                applyEndState();
+            }
+            MultiAnimator.this.renderThreadStartValues = null;
+            MultiAnimator.this.onAnimationEnd(MultiAnimator.this);
+        }
+    }
+
+    //endregion
+
+
+    //region Hardware Layers
+
+    private boolean needsLayer() {
+        boolean animatesAlpha = false;
+        for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
+            final Property property = entry.getKey();
+            if (isAtTarget(property, entry.getValue())) {
+                continue;
+            }
+
+            switch (property) {
+                case SCALE_X:
+                case SCALE_Y:
+                case ROTATION:
+                case ROTATION_X:
+                case ROTATION_Y:
+                    return true;
+                case ALPHA:
+                    animatesAlpha = true;
+                    break;
+            }
+        }
+
+        if (animatesAlpha && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            return target.hasOverlappingRendering();
+        } else {
+            return animatesAlpha;
+        }
+    }
+
+    private void acquireLayer() {
+        if (!wantsLayer || hasLayer || !target.isHardwareAccelerated() ||
+                target.getLayerType() != View.LAYER_TYPE_NONE || !needsLayer()) {
+            return;
+        }
+
+        if (animatorContext != null && !animatorContext.acquireHardwareLayer()) {
+            return;
+        }
+
+        target.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        this.layerContext = animatorContext;
+        this.hasLayer = true;
+    }
+
+    private void releaseLayer() {
+        if (!hasLayer) {
+            return;
+        }
+
+        target.setLayerType(View.LAYER_TYPE_NONE, null);
+        if (layerContext != null) {
+            layerContext.releaseHardwareLayer();
+        }
+        this.layerContext = null;
+        this.hasLayer = false;
+    }
+
+    //endregion
+
+
     //region Running
 
     /**
      * Configures the underlying {@code ViewPropertyAnimator} and
      * starts animating the multi-animators target view.
+     * <p>
+     * Properties the target view already has are not animated. If no properties
+     * need to change, the multi-animator completes synchronously without becoming
+     * active within its animator context.
+     * <p>
+     * If the multi-animator's context has start batching enabled, the multi-animator
+     * will start on the next frame together with all other multi-animators started
+     * within the current frame. Multi-animators that will be skipped, either through
+     * instant mode or visibility culling, are never batched and complete synchronously.
      *
      * @throws IllegalStateException if no target has been set on the multi-animator.
+     * @see AnimatorContext#setStartBatchingEnabled(boolean)
      */
     @Override
     public void start() {
@@ -358,12 +839,100 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
             throw new IllegalStateException("Cannot start a MultiAnimator without setting a target");
         }
 
+        if (animatorContext != null && animatorContext.isStartBatchingEnabled() &&
+                !willSkipStart()) {
+            animatorContext.scheduleStart(this);
+        } else {
+            startNow();
+        }
+    }
+
+    /**
+     * Checks the conditions under which the next start is known to be skipped
+     * before any will start listeners have run.
+     *
+     * @return true if the next start will apply the end state synchronously.
+     */
+    private boolean willSkipStart() {
+        return (skipsNextStart || (animatorContext != null && animatorContext.isInstantMode()) ||
+                (cullsInvisibleTarget && !target.isShown()));
+    }
+
+    /**
+     * Immediately starts the multi-animator, bypassing start batching.
+     */
+    void startNow() {
+        final boolean systrace = AnimatorContext.SYSTRACE;
+        if (systrace) {
+            Systrace.beginSection(Systrace.MULTI_ANIMATOR_START);
+        }
+        try {
+            performStart();
+        } finally {
+            if (systrace) {
+                Systrace.endSection();
+            }
+        }
+    }
+
+    private void performStart() {
+        // RenderThread animations don't update the target's property getters, so they're
+        // stopped before anything reads them. Multi-animators that run on the main thread
+        // are left to be canceled below, after the will start listeners.
+        cancelRenderThreadAnimations(target);
+
         for (final WillRunListener willStart : willStartListeners) {
             willStart.onMultiAnimatorWillRun(this);
         }
 
+        if (skipsNextStart || (animatorContext != null && animatorContext.isInstantMode()) ||
+                (cullsInvisibleTarget && !isTargetVisible()) || !hasChanges()) {
+            this.skipsNextStart = false;
+            skipAnimation();
+            return;
+        }
+
+        if (canRunOnRenderThread()) {
+            if (Anime.isAnimating(target)) {
+                target.animate().cancel();
+            }
+
+            final List<Animator> animators = createRenderThreadAnimators(duration, startDelay);
+            if (animators != null) {
+                acquireLayer();
+
+                this.hasFiredEndListener = false;
+                this.playStartedAt = SystemClock.uptimeMillis();
+                startRenderThreadAnimators(animators, duration, startDelay);
+                onAnimationStart(this);
+                beginAnimation();
+                return;
+            }
+        }
+
         final ViewPropertyAnimator propertyAnimator = target.animate();
         propertyAnimator.cancel();
+
+        acquireLayer();
+
+        this.hasFiredEndListener = false;
+        this.playStartedAt = SystemClock.uptimeMillis();
+        startPropertyAnimator(propertyAnimator, duration, startDelay);
+        beginAnimation();
+    }
+
+    private void beginAnimation() {
+        if (animatorContext != null) {
+            this.animationContext = animatorContext;
+            this.animationToken = animatorContext.beginAnimation(toString());
+            animatorContext.trackAnimator(this);
+            animatorContext.addRunningAnimator(this);
+        }
+    }
+
+    private void startPropertyAnimator(@NonNull ViewPropertyAnimator propertyAnimator,
+                                       long duration,
+                                       long startDelay) {
         propertyAnimator.setListener(this);
         propertyAnimator.setDuration(duration);
         propertyAnimator.setStartDelay(startDelay);
@@ -372,6 +941,10 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
         for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
             final Property property = entry.getKey();
             final float value = entry.getValue();
+            if (isAtTarget(property, value)) {
+                continue;
+            }
+
             switch (property) {
                 case X:
                     propertyAnimator.x(value);
@@ -385,40 +958,39 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
                 case TRANSLATION_Y:
                     propertyAnimator.translationY(value);
                     break;
-                case SCALE_X:
-                    propertyAnimator.scaleX(value);
-                    break;
-                case SCALE_Y:
-                    propertyAnimator.scaleY(value);
-                    break;
                 case ALPHA:
                     propertyAnimator.alpha(value);
                     break;
-                case ROTATION:
-                    propertyAnimator.rotation(value);
-                    break;
-                case ROTATION_X:
-                    propertyAnimator.rotationX(value);
-                    break;
-                case ROTATION_Y:
-                    propertyAnimator.rotationY(value);
+                default:
+                    if (reducesProperties) {
+                        applyProperty(property, value);
+                    } else {
+                        animateProperty(propertyAnimator, property, value);
+                    }
                     break;
             }
         }
 
-        this.hasFiredEndListener = false;
+        this.runningPropertyAnimator = true;
         propertyAnimator.start();
-
-        if (animatorContext != null) {
-            animatorContext.beginAnimation(toString());
-        }
     }
 
+    /**
+     * Starts the multi-animator on the next frame.
+     * <p>
+     * Multi-animators bound to an animator context whose target is attached to a window
+     * are batched with all other multi-animators started within the current frame.
+     */
     public void postStart() {
         if (target == null) {
             throw new IllegalStateException("Cannot postStart a MultiAnimator without setting a target");
         }
 
+        if (animatorContext != null && target.getWindowToken() != null) {
+            animatorContext.scheduleStart(this);
+            return;
+        }
+
         target.post(new Runnable() {
             @Override
             public void run() {
@@ -430,54 +1002,235 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
     @Override
     public void cancel() {
         if (target != null) {
+            if (animatorContext != null) {
+                animatorContext.unscheduleStart(this);
+            }
+            if (paused) {
+                this.paused = false;
+                this.resumesOnRenderThread = false;
+                onAnimationCancel(this);
+                onAnimationEnd(this);
+                return;
+            }
             target.animate().cancel();
+            cancelRenderThreadAnimators();
+        }
+    }
+
+    private void animateProperty(@NonNull ViewPropertyAnimator propertyAnimator,
+                                 @NonNull Property property,
+                                 float value) {
+        switch (property) {
+            case SCALE_X:
+                propertyAnimator.scaleX(value);
+                break;
+            case SCALE_Y:
+                propertyAnimator.scaleY(value);
+                break;
+            case ROTATION:
+                propertyAnimator.rotation(value);
+                break;
+            case ROTATION_X:
+                propertyAnimator.rotationX(value);
+                break;
+            case ROTATION_Y:
+                propertyAnimator.rotationY(value);
+                break;
+        }
+    }
+
+    private void applyProperty(@NonNull Property property, float value) {
+        switch (property) {
+            case X:
+                target.setX(value);
+                break;
+            case Y:
+                target.setY(value);
+                break;
+            case TRANSLATION_X:
+                target.setTranslationX(value);
+                break;
+            case TRANSLATION_Y:
+                target.setTranslationY(value);
+                break;
+            case SCALE_X:
+                target.setScaleX(value);
+                break;
+            case SCALE_Y:
+                target.setScaleY(value);
+                break;
+            case ALPHA:
+                target.setAlpha(value);
+                break;
+            case ROTATION:
+                target.setRotation(value);
+                break;
+            case ROTATION_X:
+                target.setRotationX(value);
+                break;
+            case ROTATION_Y:
+                target.setRotationY(value);
+                break;
+        }
+    }
+
+    private float getProperty(@NonNull Property property) {
+        switch (property) {
+            case X:
+                return target.getX();
+            case Y:
+                return target.getY();
+            case TRANSLATION_X:
+                return target.getTranslationX();
+            case TRANSLATION_Y:
+                return target.getTranslationY();
+            case SCALE_X:
+                return target.getScaleX();
+            case SCALE_Y:
+                return target.getScaleY();
+            case ALPHA:
+                return target.getAlpha();
+            case ROTATION:
+                return target.getRotation();
+            case ROTATION_X:
+                return target.getRotationX();
+            case ROTATION_Y:
+                return target.getRotationY();
+            default:
+                throw new IllegalArgumentException("Unknown property " + property);
+        }
+    }
+
+    private boolean isAtTarget(@NonNull Property property, float value) {
+        return (Math.abs(getProperty(property) - value) < NO_OP_EPSILON);
+    }
+
+    /**
+     * @return Whether or not any property of the target differs from its target value.
+     */
+    private boolean hasChanges() {
+        for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
+            if (!isAtTarget(entry.getKey(), entry.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void applyEndState() {
+        for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
+            applyProperty(entry.getKey(), entry.getValue());
         }
     }
 
     @Override
     public void end() {
+        if (animatorContext != null && animatorContext.unscheduleStart(this)) {
+            // Completes the same way an instantly applied transaction does,
+            // so the will start listeners still set up the target.
+            skipNextStart();
+            startNow();
+            return;
+        }
+
+        this.paused = false;
+        this.resumesOnRenderThread = false;
+
         final ViewPropertyAnimator animator = target.animate();
         animator.setListener(null); // Prevent unwanted cancel callback
         animator.cancel();
+        endRenderThreadAnimators();
 
-        for (final Map.Entry<Property, Float> entry : properties.entrySet()) {
-            final Property property = entry.getKey();
-            final float value = entry.getValue();
-            switch (property) {
-                case X:
-                    target.setX(value);
-                    break;
-                case Y:
-                    target.setY(value);
-                    break;
-                case TRANSLATION_X:
-                    target.setTranslationX(value);
-                    break;
-                case TRANSLATION_Y:
-                    target.setTranslationY(value);
-                    break;
-                case SCALE_X:
-                    target.setScaleX(value);
-                    break;
-                case SCALE_Y:
-                    target.setScaleY(value);
-                    break;
-                case ALPHA:
-                    target.setAlpha(value);
-                    break;
-                case ROTATION:
-                    target.setRotation(value);
-                    break;
-                case ROTATION_X:
-                    target.setRotationX(value);
-                    break;
-                case ROTATION_Y:
-                    target.setRotationY(value);
-                    break;
+        applyEndState();
+
+        onAnimationEnd(this);
+    }
+
+    /**
+     * Pauses the multi-animator, leaving its target at its current values.
+     * <p>
+     * Neither {@code ViewPropertyAnimator} nor RenderThread animations can be paused, so the
+     * underlying animation is stopped, and {@link #resume()} continues from the target's current
+     * values over the remaining duration of the animation. Multi-animators waiting for a batched
+     * start are held by their animator context instead.
+     * <p>
+     * Pause listeners are only notified on KitKat and later.
+     *
+     * @see AnimatorContext#pause()
+     */
+    @Override
+    public void pause() {
+        if (paused) {
+            return;
+        }
+
+        if (renderThreadAnimators != null) {
+            final List<Animator> animators = detachRenderThreadAnimators();
+            applyRenderThreadProgress();
+            //noinspection ConstantConditions
+            for (final Animator animator : animators) {
+                animator.cancel();
             }
+            this.resumesOnRenderThread = true;
+        } else if (runningPropertyAnimator) {
+            final ViewPropertyAnimator propertyAnimator = target.animate();
+            propertyAnimator.setListener(null);
+            propertyAnimator.cancel();
+        } else {
+            return;
         }
 
-        onAnimationEnd(this);
+        this.paused = true;
+        this.pausedPlayTime = SystemClock.uptimeMillis() - playStartedAt;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            super.pause();
+        }
+    }
+
+    /**
+     * Resumes the multi-animator after a call to {@link #pause()}.
+     * <p>
+     * Resume listeners are only notified on KitKat and later.
+     */
+    @Override
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+
+        this.paused = false;
+
+        final long remainingDelay = Math.max(0L, startDelay - pausedPlayTime);
+        final long remainingDuration = Math.max(0L, duration - Math.max(0L, pausedPlayTime - startDelay));
+        this.playStartedAt = SystemClock.uptimeMillis() - pausedPlayTime;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            super.resume();
+        }
+
+        if (resumesOnRenderThread) {
+            this.resumesOnRenderThread = false;
+            if (!hasChanges()) {
+                applyEndState();
+                onAnimationEnd(this);
+                return;
+            }
+
+            final List<Animator> animators = createRenderThreadAnimators(remainingDuration, remainingDelay);
+            if (animators != null) {
+                startRenderThreadAnimators(animators, remainingDuration, remainingDelay);
+                return;
+            }
+        }
+
+        this.suppressesNextStart = Anime.isAnimating(target);
+        startPropertyAnimator(target.animate(), remainingDuration, remainingDelay);
+    }
+
+    @Override
+    public boolean isPaused() {
+        return paused;
     }
 
     //endregion
@@ -597,6 +1350,21 @@ public class MultiAnimator extends Animator implements Animator.AnimatorListener
         animator.duration = duration;
         animator.startDelay = startDelay;
         animator.interpolator = interpolator;
+        animator.wantsLayer = wantsLayer;
+        animator.cullsInvisibleTarget = cullsInvisibleTarget;
+        animator.skipsNextStart = false;
+        animator.reducesProperties = reducesProperties;
+        animator.runsOnRenderThread = runsOnRenderThread;
+        animator.renderThreadAnimators = null;
+        animator.renderThreadStartValues = null;
+        animator.runningPropertyAnimator = false;
+        animator.paused = false;
+        animator.resumesOnRenderThread = false;
+        animator.suppressesNextStart = false;
+        animator.layerContext = null;
+        animator.hasLayer = false;
+        animator.animationToken = ActivityCounter.NO_TOKEN;
+        animator.animationContext = null;
 
         animator.willStartListeners = new ArrayList<>(willStartListeners);
 
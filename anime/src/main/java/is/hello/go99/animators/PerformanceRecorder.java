@@ -0,0 +1,474 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Appends a compact binary record of every transaction completed by an {@link AnimatorContext}
+ * to a file, so that animation performance can be collected from the field and analyzed later
+ * with {@link #decode(File)}.
+ * <p>
+ * Each record contains the hash of the transaction's name, its member count, how long it ran,
+ * how many frames were dropped while it ran, and how long it waited for the context to become
+ * idle before starting. The name of a transaction is the class name of the consumer that built
+ * it, and its hash is the {@link String#hashCode()} of that name.
+ * <p>
+ * Records are encoded on the main thread into one of two preallocated buffers. Once a buffer
+ * fills, it's handed to a background thread to be written out through a {@link FileChannel}
+ * while recording continues into the other. Records that arrive while both buffers are in use
+ * are dropped and counted. When the file would grow beyond its maximum size, it's rotated.
+ *
+ * @see AnimatorContext#setPerformanceRecorder(PerformanceRecorder)
+ */
+public class PerformanceRecorder {
+    /**
+     * The default maximum size of a performance log, in bytes.
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 256 * 1024;
+
+    /**
+     * The default number of rotated performance logs retained.
+     */
+    public static final int DEFAULT_MAX_BACKUP_COUNT = 1;
+
+    /**
+     * The number of records encoded into each buffer before it's written out.
+     */
+    public static final int RECORDS_PER_BUFFER = 64;
+
+    private static final String LOG_TAG = PerformanceRecorder.class.getSimpleName();
+
+    static final int MAGIC = 0x474f3939;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 24;
+
+    private final File file;
+    private final long maxFileSize;
+    private final int maxBackupCount;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Chunk[] chunks = { new Chunk(), new Chunk() };
+    private int current = 0;
+    private boolean closed = false;
+    private volatile int droppedRecordCount = 0;
+
+    private @Nullable FileChannel channel;
+
+    /**
+     * Constructs a performance recorder.
+     *
+     * @param file           The file to append records to. Should be app-private.
+     * @param maxFileSize    The size in bytes beyond which the file is rotated.
+     * @param maxBackupCount The number of rotated files to retain. Rotated files have the
+     *                       name of the original file followed by {@code .1}, {@code .2}, etc.
+     */
+    public PerformanceRecorder(@NonNull File file, long maxFileSize, int maxBackupCount) {
+        if (maxFileSize < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("maxFileSize too small to hold a record");
+        }
+        if (maxBackupCount < 0) {
+            throw new IllegalArgumentException("maxBackupCount must not be negative");
+        }
+
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxBackupCount = maxBackupCount;
+    }
+
+    /**
+     * Constructs a performance recorder with the default maximum file size and backup count.
+     *
+     * @param file The file to append records to. Should be app-private.
+     */
+    public PerformanceRecorder(@NonNull File file) {
+        this(file, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_BACKUP_COUNT);
+    }
+
+
+    //region Recording
+
+    /**
+     * Records a completed transaction. Has no effect once the recorder is closed.
+     *
+     * @param nameHash      The hash of the transaction's name.
+     * @param memberCount   The number of animators in the transaction.
+     * @param durationNanos How long the transaction ran.
+     * @param droppedFrames The number of frames dropped while the transaction ran.
+     * @param idleWaitNanos How long the transaction waited to start.
+     */
+    void record(int nameHash,
+                int memberCount,
+                long durationNanos,
+                int droppedFrames,
+                long idleWaitNanos) {
+        if (closed) {
+            return;
+        }
+
+        Chunk chunk = chunks[current];
+        if (chunk.writing || chunk.buffer.remaining() < RECORD_SIZE) {
+            if (!chunk.writing) {
+                write(chunk);
+            }
+
+            final Chunk next = chunks[current ^ 1];
+            if (next.writing) {
+                this.droppedRecordCount++;
+                return;
+            }
+
+            this.current ^= 1;
+            chunk = next;
+        }
+
+        final ByteBuffer buffer = chunk.buffer;
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(nameHash);
+        buffer.putShort(clampToShort(memberCount));
+        buffer.putShort(clampToShort(droppedFrames));
+        buffer.putInt(nanosToMicros(durationNanos));
+        buffer.putInt(nanosToMicros(idleWaitNanos));
+    }
+
+    /**
+     * Writes out every record encoded so far in the background.
+     *
+     * @return A future that completes once the records have been written.
+     * @throws IllegalStateException if the recorder has been closed.
+     */
+    public @NonNull Future<?> flush() {
+        if (closed) {
+            throw new IllegalStateException("Recorder already closed");
+        }
+
+        final Chunk chunk = chunks[current];
+        if (!chunk.writing && chunk.buffer.position() > 0) {
+            write(chunk);
+        }
+
+        return executor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+    }
+
+    /**
+     * Writes out every record encoded so far, and closes the file in the background.
+     * Records made after the recorder is closed are ignored.
+     *
+     * @return A future that completes once the file has been closed.
+     * @throws IllegalStateException if the recorder has already been closed.
+     */
+    public @NonNull Future<?> close() {
+        flush();
+        this.closed = true;
+
+        final Future<?> closed = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                closeChannel();
+            }
+        });
+        executor.shutdown();
+        return closed;
+    }
+
+    /**
+     * @return The number of records dropped because the background thread fell behind.
+     */
+    public int getDroppedRecordCount() {
+        return droppedRecordCount;
+    }
+
+    /**
+     * @return The file records are appended to.
+     */
+    public @NonNull File getFile() {
+        return file;
+    }
+
+    static short clampToShort(int value) {
+        return (short) Math.max(0, Math.min(Short.MAX_VALUE, value));
+    }
+
+    static int nanosToMicros(long nanos) {
+        return (int) Math.max(0L, Math.min(Integer.MAX_VALUE, nanos / 1000L));
+    }
+
+    //endregion
+
+
+    //region Writing
+
+    private void write(final @NonNull Chunk chunk) {
+        chunk.writing = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                writeChunk(chunk);
+            }
+        });
+    }
+
+    private void writeChunk(@NonNull Chunk chunk) {
+        final ByteBuffer buffer = chunk.buffer;
+        try {
+            buffer.flip();
+
+            FileChannel channel = openChannel();
+            if (channel.size() > HEADER_SIZE &&
+                    channel.size() + buffer.remaining() > maxFileSize) {
+                rotate();
+                channel = openChannel();
+            }
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Could not write performance records to " + file, e);
+            closeChannel();
+        } finally {
+            buffer.clear();
+            chunk.writing = false;
+        }
+    }
+
+    private @NonNull FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            final FileChannel channel = new FileOutputStream(file, true).getChannel();
+            if (channel.size() == 0L) {
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+            this.channel = channel;
+        }
+        return channel;
+    }
+
+    private void rotate() {
+        closeChannel();
+
+        if (maxBackupCount == 0) {
+            if (!file.delete()) {
+                Log.w(LOG_TAG, "Could not delete " + file);
+            }
+            return;
+        }
+
+        for (int i = maxBackupCount - 1; i > 0; i--) {
+            final File backup = getBackupFile(i);
+            if (backup.exists()) {
+                renameReplacing(backup, getBackupFile(i + 1));
+            }
+        }
+        renameReplacing(file, getBackupFile(1));
+    }
+
+    private void renameReplacing(@NonNull File from, @NonNull File to) {
+        if ((to.exists() && !to.delete()) || !from.renameTo(to)) {
+            Log.w(LOG_TAG, "Could not rotate " + from + " to " + to);
+        }
+    }
+
+    /**
+     * @param index The index of a backup, starting at {@code 1} for the most recent.
+     * @return The file the backup is stored in.
+     */
+    public @NonNull File getBackupFile(int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Could not close " + file, e);
+            }
+            this.channel = null;
+        }
+    }
+
+    //endregion
+
+
+    //region Decoding
+
+    /**
+     * Decodes every record in a performance log.
+     *
+     * @param file The performance log.
+     * @return The records, oldest first.
+     * @throws IOException if the file cannot be read, or is not a performance log.
+     */
+    public static @NonNull List<Record> decode(@NonNull File file) throws IOException {
+        final FileInputStream input = new FileInputStream(file);
+        try {
+            final FileChannel channel = input.getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading.
+            }
+            buffer.flip();
+            return decode(buffer);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Decodes every record in the remaining contents of a buffer. A record
+     * truncated by an interrupted write at the end of the buffer is ignored.
+     *
+     * @param buffer The contents of a performance log.
+     * @return The records, oldest first.
+     * @throws IOException if the buffer does not contain a performance log.
+     */
+    public static @NonNull List<Record> decode(@NonNull ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a performance log");
+        }
+
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported performance log version " + version);
+        }
+
+        final List<Record> records = new ArrayList<>(buffer.remaining() / RECORD_SIZE);
+        while (buffer.remaining() >= RECORD_SIZE) {
+            final long timestamp = buffer.getLong();
+            final int nameHash = buffer.getInt();
+            final int memberCount = buffer.getShort();
+            final int droppedFrames = buffer.getShort();
+            final int durationMicros = buffer.getInt();
+            final int idleWaitMicros = buffer.getInt();
+            records.add(new Record(timestamp, nameHash, memberCount,
+                                   durationMicros, droppedFrames, idleWaitMicros));
+        }
+        return records;
+    }
+
+    //endregion
+
+
+    private static final class Chunk {
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_BUFFER);
+        volatile boolean writing = false;
+    }
+
+    /**
+     * A single decoded transaction record.
+     */
+    public static final class Record {
+        private final long timestamp;
+        private final int nameHash;
+        private final int memberCount;
+        private final int durationMicros;
+        private final int droppedFrames;
+        private final int idleWaitMicros;
+
+        Record(long timestamp,
+               int nameHash,
+               int memberCount,
+               int durationMicros,
+               int droppedFrames,
+               int idleWaitMicros) {
+            this.timestamp = timestamp;
+            this.nameHash = nameHash;
+            this.memberCount = memberCount;
+            this.durationMicros = durationMicros;
+            this.droppedFrames = droppedFrames;
+            this.idleWaitMicros = idleWaitMicros;
+        }
+
+        /**
+         * @return When the transaction completed, in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return The hash of the transaction's name.
+         */
+        public int getNameHash() {
+            return nameHash;
+        }
+
+        /**
+         * @return The number of animators in the transaction.
+         */
+        public int getMemberCount() {
+            return memberCount;
+        }
+
+        /**
+         * @return How long the transaction ran.
+         */
+        public int getDurationMicros() {
+            return durationMicros;
+        }
+
+        /**
+         * @return The number of frames dropped while the transaction ran, measured
+         *         against the frame interval observed on the display.
+         */
+        public int getDroppedFrames() {
+            return droppedFrames;
+        }
+
+        /**
+         * @return How long the transaction waited to start.
+         */
+        public int getIdleWaitMicros() {
+            return idleWaitMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "Record{" +
+                    "timestamp=" + timestamp +
+                    ", nameHash=" + Integer.toHexString(nameHash) +
+                    ", memberCount=" + memberCount +
+                    ", durationMicros=" + durationMicros +
+                    ", droppedFrames=" + droppedFrames +
+                    ", idleWaitMicros=" + idleWaitMicros +
+                    '}';
+        }
+    }
+}
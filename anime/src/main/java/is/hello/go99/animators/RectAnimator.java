@@ -0,0 +1,258 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.animation.ValueAnimator;
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import is.hello.go99.evaluators.RectEvaluatorCompat;
+
+/**
+ * A value animator that transitions between a series of rectangles without allocating.
+ * <p>
+ * The animator runs over a primitive {@code float} fraction. Keyframes are stored packed
+ * into a single {@code int[]}, and the current rectangle is computed by a
+ * {@link RectEvaluatorCompat} that re-uses a single {@link Rect}. The rectangle is delivered
+ * to {@link RectUpdateListener}s, and is only valid for the duration of the callback.
+ * {@link #getAnimatedValue()} returns the same re-used rectangle.
+ *
+ * @see AnimatorTemplate#createRectAnimator(Rect...)
+ * @see AnimatorTemplate#createRectAnimator(int[], float[])
+ */
+public class RectAnimator extends ValueAnimator implements ValueAnimator.AnimatorUpdateListener {
+    private @NonNull int[] keyframes;
+    private @Nullable float[] fractions;
+    private int keyframeCount;
+    private @NonNull Rect animatedRect = new Rect();
+    private @NonNull RectEvaluatorCompat evaluator = new RectEvaluatorCompat(animatedRect);
+    private @NonNull ArrayList<RectUpdateListener> rectUpdateListeners = new ArrayList<>();
+
+
+    //region Lifecycle
+
+    /**
+     * Creates a rect animator that will transition between the given rectangles.
+     *
+     * @param rectangles The rectangles to interpolate between. Must contain at least one rectangle.
+     * @return A new rect animator.
+     */
+    public static RectAnimator ofRects(@NonNull Rect... rectangles) {
+        final RectAnimator animator = new RectAnimator();
+        animator.setRects(rectangles);
+        return animator;
+    }
+
+    /**
+     * Creates a rect animator that will transition between the given packed keyframes.
+     *
+     * @param keyframes The packed rectangles to interpolate between.
+     * @param fractions The fraction of each keyframe, or {@code null} to space them evenly.
+     * @return A new rect animator.
+     *
+     * @see #setKeyframes(int[], float[])
+     */
+    public static RectAnimator ofKeyframes(@NonNull int[] keyframes, @Nullable float[] fractions) {
+        final RectAnimator animator = new RectAnimator();
+        animator.setKeyframes(keyframes, fractions);
+        return animator;
+    }
+
+    /**
+     * Constructs a rect animator with no rectangles.
+     * <p>
+     * {@link #setRects(Rect...)} or {@link #setKeyframes(int[], float[])}
+     * must be called before the animator is started.
+     */
+    public RectAnimator() {
+        this.keyframes = new int[4];
+        this.keyframeCount = 1;
+        setFloatValues(0f, 1f);
+        addUpdateListener(this);
+    }
+
+    //endregion
+
+
+    //region Attributes
+
+    /**
+     * Sets the rectangles the animator will transition between. The rectangles
+     * are spaced evenly over the duration of the animator.
+     *
+     * @param rectangles The rectangles. Must contain at least one rectangle.
+     * @throws IllegalArgumentException if {@code rectangles} is empty.
+     */
+    public void setRects(@NonNull Rect... rectangles) {
+        setKeyframes(RectEvaluatorCompat.pack(rectangles), null);
+    }
+
+    /**
+     * Sets the keyframes the animator will transition between.
+     * <p>
+     * The keyframes array is not copied, and must not be modified while the animator is running.
+     *
+     * @param keyframes The rectangles packed as {@code left, top, right, bottom} for each keyframe.
+     * @param fractions The fraction of the animation each keyframe occurs at, or {@code null} to
+     *                  space the keyframes evenly. Must contain one non-decreasing value per keyframe.
+     * @throws IllegalArgumentException if {@code keyframes} is empty or not a multiple of four values,
+     *                                  or if {@code fractions} does not match the keyframes.
+     *
+     * @see RectEvaluatorCompat#pack(Rect...)
+     */
+    public void setKeyframes(@NonNull int[] keyframes, @Nullable float[] fractions) {
+        if (keyframes.length == 0 || keyframes.length % 4 != 0) {
+            throw new IllegalArgumentException("RectAnimator requires at least one keyframe " +
+                                                       "of four values each");
+        }
+
+        final int keyframeCount = keyframes.length / 4;
+        if (fractions != null) {
+            if (fractions.length != keyframeCount) {
+                throw new IllegalArgumentException("Expected " + keyframeCount + " fractions, " +
+                                                           "got " + fractions.length);
+            }
+            for (int i = 1; i < keyframeCount; i++) {
+                if (fractions[i] < fractions[i - 1]) {
+                    throw new IllegalArgumentException("Keyframe fractions must be non-decreasing");
+                }
+            }
+        }
+
+        this.keyframes = keyframes;
+        this.fractions = fractions;
+        this.keyframeCount = keyframeCount;
+        animatedRect.set(keyframes[0], keyframes[1], keyframes[2], keyframes[3]);
+    }
+
+    /**
+     * @return The most recently calculated rectangle of the animator.
+     *         The same instance is updated on every frame.
+     */
+    public @NonNull Rect getAnimatedRect() {
+        return animatedRect;
+    }
+
+    /**
+     * Provided for compatibility with {@code ValueAnimator#ofObject} based animators.
+     *
+     * @return The same rectangle as {@link #getAnimatedRect()}.
+     */
+    @Override
+    public Object getAnimatedValue() {
+        return animatedRect;
+    }
+
+    //endregion
+
+
+    //region Listeners
+
+    public void addRectUpdateListener(@NonNull RectUpdateListener listener) {
+        rectUpdateListeners.add(listener);
+    }
+
+    public void removeRectUpdateListener(@NonNull RectUpdateListener listener) {
+        rectUpdateListeners.remove(listener);
+    }
+
+    /**
+     * Extends the default implementation to keep the animator's
+     * internal update listener registered.
+     */
+    @Override
+    public void removeAllUpdateListeners() {
+        super.removeAllUpdateListeners();
+        rectUpdateListeners.clear();
+        addUpdateListener(this);
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        evaluate(getAnimatedFraction());
+
+        for (int i = 0, size = rectUpdateListeners.size(); i < size; i++) {
+            rectUpdateListeners.get(i).onRectUpdate(this, animatedRect);
+        }
+    }
+
+    //endregion
+
+
+    /**
+     * Calculates the rectangle for a given fraction, storing it in the animated rect.
+     * <p>
+     * Fractions outside of the first and last keyframe extrapolate the outer keyframe pairs.
+     *
+     * @param fraction The fraction.
+     */
+    void evaluate(float fraction) {
+        final int last = keyframeCount - 1;
+        if (last == 0) {
+            animatedRect.set(keyframes[0], keyframes[1], keyframes[2], keyframes[3]);
+            return;
+        }
+
+        final int segment;
+        final float segmentFraction;
+        if (fractions == null) {
+            final float position = fraction * last;
+            segment = Math.max(0, Math.min(last - 1, (int) position));
+            segmentFraction = position - segment;
+        } else {
+            int candidate = 0;
+            while (candidate < last - 1 && fraction >= fractions[candidate + 1]) {
+                candidate++;
+            }
+            segment = candidate;
+
+            final float start = fractions[segment];
+            final float end = fractions[segment + 1];
+            segmentFraction = (end > start) ? (fraction - start) / (end - start) : 1f;
+        }
+
+        evaluator.evaluate(segmentFraction, keyframes, segment, segment + 1);
+    }
+
+
+    @Override
+    public RectAnimator clone() {
+        final RectAnimator animator = (RectAnimator) super.clone();
+
+        animator.removeUpdateListener(this);
+        animator.addUpdateListener(animator);
+        animator.animatedRect = new Rect(animatedRect);
+        animator.evaluator = new RectEvaluatorCompat(animator.animatedRect);
+        animator.rectUpdateListeners = new ArrayList<>(rectUpdateListeners);
+
+        return animator;
+    }
+
+
+    /**
+     * Receives rectangle updates from a {@link RectAnimator} without allocation.
+     */
+    public interface RectUpdateListener {
+        /**
+         * @param animator The animator.
+         * @param rect The current rectangle. Re-used across frames, do not retain.
+         */
+        void onRectUpdate(@NonNull RectAnimator animator, @NonNull Rect rect);
+    }
+}
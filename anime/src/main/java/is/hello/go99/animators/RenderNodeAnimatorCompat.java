@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.animation.Animator;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+import android.view.View;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Provides access to the platform's {@code RenderNodeAnimator}, which runs view property
+ * animations on the RenderThread so they continue while the main thread is busy.
+ * <p>
+ * {@code RenderNodeAnimator} is not part of the public SDK. It is resolved through reflection
+ * the first time it's needed, and is treated as unavailable if resolution fails for any reason.
+ */
+final class RenderNodeAnimatorCompat {
+    private static final String CLASS_NAME = "android.view.RenderNodeAnimator";
+
+    // Mirrors RenderNodeAnimator's property constants.
+    static final int TRANSLATION_X = 0;
+    static final int TRANSLATION_Y = 1;
+    static final int ALPHA = 11;
+
+    private static boolean resolved = false;
+    private static @Nullable Constructor<?> constructor;
+    private static @Nullable Method setTarget;
+
+    /**
+     * Creates animators in place of the platform when set. Used by tests.
+     */
+    static @Nullable Factory factory;
+
+
+    /**
+     * @return Whether or not RenderThread animators can be created on the current device.
+     */
+    static boolean isAvailable() {
+        if (factory != null) {
+            return true;
+        }
+
+        resolve();
+        return (constructor != null && setTarget != null);
+    }
+
+    private static void resolve() {
+        if (resolved) {
+            return;
+        }
+
+        resolved = true;
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return;
+        }
+
+        try {
+            final Class<?> animatorClass = Class.forName(CLASS_NAME);
+            constructor = animatorClass.getConstructor(int.class, float.class);
+            setTarget = animatorClass.getMethod("setTarget", View.class);
+        } catch (Exception | LinkageError e) {
+            Log.w(RenderNodeAnimatorCompat.class.getSimpleName(),
+                  "RenderThread animations unavailable", e);
+            constructor = null;
+            setTarget = null;
+        }
+    }
+
+    /**
+     * Creates a RenderThread animator for a property of a given view.
+     *
+     * @param target The view to animate. Must be hardware accelerated.
+     * @param property The property constant.
+     * @param finalValue The value to animate the property to.
+     * @return A new animator, or {@code null} if one could not be created.
+     */
+    static @Nullable Animator create(@NonNull View target, int property, float finalValue) {
+        if (factory != null) {
+            return factory.create(target, property, finalValue);
+        }
+
+        if (!isAvailable()) {
+            return null;
+        }
+
+        try {
+            //noinspection ConstantConditions
+            final Animator animator = (Animator) constructor.newInstance(property, finalValue);
+            //noinspection ConstantConditions
+            setTarget.invoke(animator, target);
+            return animator;
+        } catch (Exception | LinkageError e) {
+            Log.w(RenderNodeAnimatorCompat.class.getSimpleName(),
+                  "Could not create RenderThread animator", e);
+            return null;
+        }
+    }
+
+
+    private RenderNodeAnimatorCompat() {
+    }
+
+
+    interface Factory {
+        /**
+         * @see RenderNodeAnimatorCompat#create(View, int, float)
+         */
+        @Nullable Animator create(@NonNull View target, int property, float finalValue);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import is.hello.go99.core.ActivityCounter;
+
+/**
+ * Gathers the multi-animators scheduled to start within a single frame, and starts them
+ * together on the next frame. Only the most recently scheduled multi-animator for each
+ * view is started, taking on any properties of the multi-animators it superseded.
+ * <p>
+ * The scheduler counts as a single active animation within its animator
+ * context from when the first start is scheduled, until the batch starts.
+ * While paused, the batch is held until the scheduler is resumed.
+ */
+class StartScheduler implements Handler.Callback {
+    private static final String ANIMATION_NAME = StartScheduler.class.getSimpleName();
+    private static final int MSG_FLUSH = 0;
+
+    private final AnimatorContext animatorContext;
+    private final Map<View, MultiAnimator> pending = new LinkedHashMap<>();
+    private final Handler handler = new Handler(Looper.getMainLooper(), this);
+    private Object frameCallback;
+    private int token = ActivityCounter.NO_TOKEN;
+    private boolean scheduled = false;
+    private boolean paused = false;
+
+    StartScheduler(@NonNull AnimatorContext animatorContext) {
+        this.animatorContext = animatorContext;
+    }
+
+
+    //region Scheduling
+
+    /**
+     * Schedules a multi-animator to start on the next frame, superseding any
+     * multi-animator already scheduled to start for the same target view.
+     *
+     * @param animator The multi-animator.
+     */
+    void schedule(@NonNull MultiAnimator animator) {
+        final MultiAnimator existing = pending.put(animator.getTarget(), animator);
+        if (existing == animator) {
+            return;
+        }
+
+        if (existing != null) {
+            animator.supersede(existing);
+        }
+
+        if (!scheduled) {
+            this.scheduled = true;
+            this.token = animatorContext.beginAnimation(ANIMATION_NAME);
+            if (!paused) {
+                postFlush();
+            }
+        }
+    }
+
+    /**
+     * Removes a multi-animator from the next batch.
+     *
+     * @param animator The multi-animator.
+     * @return true if the multi-animator was scheduled; false otherwise.
+     */
+    boolean unschedule(@NonNull MultiAnimator animator) {
+        final View target = animator.getTarget();
+        if (target == null || pending.get(target) != animator) {
+            return false;
+        }
+
+        pending.remove(target);
+        if (pending.isEmpty()) {
+            cancelFlush();
+            finish();
+        }
+        return true;
+    }
+
+    /**
+     * @return A copy of the multi-animators waiting for the next frame.
+     */
+    List<MultiAnimator> copyPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * @return The number of multi-animators waiting for the next frame.
+     */
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    //endregion
+
+
+    //region Pausing
+
+    /**
+     * Holds the next batch until {@link #resume()} is called.
+     */
+    void pause() {
+        if (!paused) {
+            this.paused = true;
+            if (scheduled) {
+                cancelFlush();
+            }
+        }
+    }
+
+    /**
+     * Starts the held batch on the next frame.
+     */
+    void resume() {
+        if (paused) {
+            this.paused = false;
+            if (scheduled) {
+                postFlush();
+            }
+        }
+    }
+
+    //endregion
+
+
+    //region Flushing
+
+    /**
+     * Immediately starts every scheduled multi-animator.
+     */
+    void flush() {
+        if (!scheduled) {
+            return;
+        }
+
+        final List<MultiAnimator> toStart = new ArrayList<>(pending.values());
+        pending.clear();
+        for (final MultiAnimator animator : toStart) {
+            animator.startNow();
+        }
+
+        finish();
+    }
+
+    private void finish() {
+        if (scheduled) {
+            this.scheduled = false;
+            animatorContext.endAnimation(token);
+            this.token = ActivityCounter.NO_TOKEN;
+        }
+    }
+
+    private void postFlush() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            handler.sendEmptyMessage(MSG_FLUSH);
+        }
+    }
+
+    private void cancelFlush() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            removeFrameCallback();
+        } else {
+            handler.removeMessages(MSG_FLUSH);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (frameCallback == null) {
+            this.frameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    flush();
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void removeFrameCallback() {
+        if (frameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback((Choreographer.FrameCallback) frameCallback);
+        }
+    }
+
+    @Override
+    public boolean handleMessage(Message message) {
+        if (message.what == MSG_FLUSH) {
+            flush();
+            return true;
+        }
+
+        return false;
+    }
+
+    //endregion
+}
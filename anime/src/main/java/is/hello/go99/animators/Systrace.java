@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * Emits {@code android.os.Trace} sections and counters for systrace and perfetto captures.
+ * <p>
+ * Callers must check {@link AnimatorContext#SYSTRACE} before calling into this class,
+ * so that tracing costs a single branch when it's turned off.
+ */
+final class Systrace {
+    static final String TRANSACTION = "AnimatorContext.transaction";
+    static final String TO_ANIMATOR = "AnimatorContext.Transaction#toAnimator";
+    static final String IDLE = "AnimatorContext.idle";
+    static final String MULTI_ANIMATOR_START = "MultiAnimator.start";
+
+    // Mirrors Trace.TRACE_TAG_APP.
+    private static final long TRACE_TAG_APP = 1L << 12;
+
+    private static boolean resolved = false;
+    private static @Nullable Method setCounter;
+    private static @Nullable Method traceCounter;
+
+
+    //region Sections
+
+    static void beginSection(@NonNull String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            beginSectionApi18(name);
+        }
+    }
+
+    static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            endSectionApi18();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void beginSectionApi18(@NonNull String name) {
+        Trace.beginSection(name);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void endSectionApi18() {
+        Trace.endSection();
+    }
+
+    //endregion
+
+
+    //region Counters
+
+    /**
+     * Updates a trace counter. {@code Trace#setCounter} is used where available,
+     * and the hidden {@code Trace#traceCounter} before it. Counters are silently
+     * unavailable if neither can be resolved.
+     *
+     * @param name  The name of the counter.
+     * @param value The new value of the counter.
+     */
+    static void setCounter(@NonNull String name, int value) {
+        resolve();
+
+        try {
+            if (setCounter != null) {
+                setCounter.invoke(null, name, (long) value);
+            } else if (traceCounter != null) {
+                traceCounter.invoke(null, TRACE_TAG_APP, name, value);
+            }
+        } catch (Exception e) {
+            setCounter = null;
+            traceCounter = null;
+        }
+    }
+
+    private static void resolve() {
+        if (resolved) {
+            return;
+        }
+
+        resolved = true;
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return;
+        }
+
+        try {
+            setCounter = Trace.class.getMethod("setCounter", String.class, long.class);
+        } catch (Exception | LinkageError e) {
+            try {
+                traceCounter = Trace.class.getMethod("traceCounter", long.class, String.class, int.class);
+            } catch (Exception | LinkageError ignored) {
+                traceCounter = null;
+            }
+        }
+    }
+
+    //endregion
+
+
+    private Systrace() {
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.os.SystemClock;
+
+import is.hello.go99.core.Clock;
+
+/**
+ * Measures time for the animation engine with {@link SystemClock#uptimeMillis()},
+ * the same clock used by the framework's animators and handlers.
+ */
+final class UptimeClock implements Clock {
+    static final UptimeClock INSTANCE = new UptimeClock();
+
+    @Override
+    public long uptimeMillis() {
+        return SystemClock.uptimeMillis();
+    }
+
+
+    private UptimeClock() {
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.evaluators;
+
+import android.animation.TypeEvaluator;
+import android.graphics.Matrix;
+import android.support.annotation.NonNull;
+
+/**
+ * Interpolates between two matrices element by element, reusing
+ * a single instance of {@link Matrix} for every evaluated value.
+ * <p>
+ * Element-wise interpolation is exact for translation and scale. Transitions
+ * that involve large rotations will skew mid-animation, and should instead
+ * be expressed as separate rotation and scale animations.
+ */
+public class MatrixEvaluator implements TypeEvaluator<Matrix> {
+    private final Matrix matrix;
+    private final float[] startValues = new float[9];
+    private final float[] endValues = new float[9];
+    private final float[] values = new float[9];
+
+    /**
+     * Construct an evaluator with a new {@link Matrix} instance.
+     */
+    public MatrixEvaluator() {
+        this(new Matrix());
+    }
+
+    /**
+     * Construct an evaluator re-using the given Matrix.
+     *
+     * @param reuseMatrix The Matrix instance {@link #evaluate(float, Matrix, Matrix)} will return.
+     */
+    public MatrixEvaluator(@NonNull Matrix reuseMatrix) {
+        this.matrix = reuseMatrix;
+    }
+
+    @Override
+    public Matrix evaluate(float fraction, Matrix startValue, Matrix endValue) {
+        startValue.getValues(startValues);
+        endValue.getValues(endValues);
+        for (int i = 0; i < 9; i++) {
+            values[i] = startValues[i] + (endValues[i] - startValues[i]) * fraction;
+        }
+        matrix.setValues(values);
+
+        return matrix;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.evaluators;
+
+import android.animation.TypeEvaluator;
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+
+/**
+ * Starting in Lollipop, {@link android.animation.PointFEvaluator} will reuse
+ * a single instance of {@link PointF}. This class back-ports that
+ * functionality to older versions of Android.
+ */
+public class PointFEvaluatorCompat implements TypeEvaluator<PointF> {
+    private final PointF point;
+
+    /**
+     * Construct an evaluator with a new {@link PointF} instance.
+     */
+    public PointFEvaluatorCompat() {
+        this(new PointF());
+    }
+
+    /**
+     * Construct an evaluator re-using the given PointF.
+     *
+     * @param reusePoint The PointF instance {@link #evaluate(float, PointF, PointF)} will return.
+     */
+    public PointFEvaluatorCompat(@NonNull PointF reusePoint) {
+        this.point = reusePoint;
+    }
+
+    @Override
+    public PointF evaluate(float fraction, PointF startValue, PointF endValue) {
+        point.x = startValue.x + (endValue.x - startValue.x) * fraction;
+        point.y = startValue.y + (endValue.y - startValue.y) * fraction;
+
+        return point;
+    }
+}
@@ -19,6 +19,8 @@ import android.animation.TypeEvaluator;
 import android.graphics.Rect;
 import android.support.annotation.NonNull;
 
+import is.hello.go99.core.AnimeMath;
+
 /**
  * Starting in Lollipop, {@link android.animation.RectEvaluator} will reuse
  * a single instance of {@link Rect}, which is significantly more efficient.
@@ -45,11 +47,56 @@ public class RectEvaluatorCompat implements TypeEvaluator<Rect> {
 
     @Override
     public Rect evaluate(float fraction, Rect startValue, Rect endValue) {
-        rect.left = startValue.left + (int) ((endValue.left - startValue.left) * fraction);
-        rect.top = startValue.top + (int) ((endValue.top - startValue.top) * fraction);
-        rect.right = startValue.right + (int) ((endValue.right - startValue.right) * fraction);
-        rect.bottom = startValue.bottom + (int) ((endValue.bottom - startValue.bottom) * fraction);
+        rect.left = AnimeMath.interpolateInts(fraction, startValue.left, endValue.left);
+        rect.top = AnimeMath.interpolateInts(fraction, startValue.top, endValue.top);
+        rect.right = AnimeMath.interpolateInts(fraction, startValue.right, endValue.right);
+        rect.bottom = AnimeMath.interpolateInts(fraction, startValue.bottom, endValue.bottom);
 
         return rect;
     }
+
+    /**
+     * Interpolates between two rectangles stored within a packed array.
+     * <p>
+     * Packed arrays store four values for each rectangle, in the
+     * order {@code left, top, right, bottom}.
+     *
+     * @param fraction The fraction from the starting to the ending rectangle.
+     * @param packedRects The packed rectangles.
+     * @param startIndex The index of the starting rectangle within the packed array.
+     * @param endIndex The index of the ending rectangle within the packed array.
+     * @return The Rect instance given to the evaluator's constructor.
+     *
+     * @see #pack(Rect...)
+     */
+    public Rect evaluate(float fraction, @NonNull int[] packedRects, int startIndex, int endIndex) {
+        final int start = startIndex * 4;
+        final int end = endIndex * 4;
+
+        rect.left = AnimeMath.interpolateInts(fraction, packedRects[start], packedRects[end]);
+        rect.top = AnimeMath.interpolateInts(fraction, packedRects[start + 1], packedRects[end + 1]);
+        rect.right = AnimeMath.interpolateInts(fraction, packedRects[start + 2], packedRects[end + 2]);
+        rect.bottom = AnimeMath.interpolateInts(fraction, packedRects[start + 3], packedRects[end + 3]);
+
+        return rect;
+    }
+
+    /**
+     * Packs a series of rectangles into a single array suitable
+     * for use with {@link #evaluate(float, int[], int, int)}.
+     *
+     * @param rects The rectangles to pack.
+     * @return A new array containing four values for each rectangle.
+     */
+    public static @NonNull int[] pack(@NonNull Rect... rects) {
+        final int[] packed = new int[rects.length * 4];
+        for (int i = 0, offset = 0; i < rects.length; i++, offset += 4) {
+            final Rect rect = rects[i];
+            packed[offset] = rect.left;
+            packed[offset + 1] = rect.top;
+            packed[offset + 2] = rect.right;
+            packed[offset + 3] = rect.bottom;
+        }
+        return packed;
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.evaluators;
+
+import android.animation.TypeEvaluator;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * The floating point counterpart to {@link RectEvaluatorCompat}. Reuses
+ * a single instance of {@link RectF} for every evaluated value.
+ */
+public class RectFEvaluator implements TypeEvaluator<RectF> {
+    private final RectF rect;
+
+    /**
+     * Construct an evaluator with a new {@link RectF} instance.
+     */
+    public RectFEvaluator() {
+        this(new RectF());
+    }
+
+    /**
+     * Construct an evaluator re-using the given RectF.
+     *
+     * @param reuseRect The RectF instance {@link #evaluate(float, RectF, RectF)} will return.
+     */
+    public RectFEvaluator(@NonNull RectF reuseRect) {
+        this.rect = reuseRect;
+    }
+
+    @Override
+    public RectF evaluate(float fraction, RectF startValue, RectF endValue) {
+        rect.left = startValue.left + (endValue.left - startValue.left) * fraction;
+        rect.top = startValue.top + (endValue.top - startValue.top) * fraction;
+        rect.right = startValue.right + (endValue.right - startValue.right) * fraction;
+        rect.bottom = startValue.bottom + (endValue.bottom - startValue.bottom) * fraction;
+
+        return rect;
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.interpolators;
+
+import android.support.annotation.NonNull;
+import android.view.animation.Interpolator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An interpolator that follows a cubic bezier curve with the end points {@code (0, 0)}
+ * and {@code (1, 1)}, and two given control points. Equivalent to the {@code cubic-bezier}
+ * timing function in CSS, and the path interpolators introduced in Lollipop.
+ * <p>
+ * A table of samples along the x-axis of the curve is computed at construction. Finding
+ * the parameter for a given input then starts from the nearest sample, and is refined with
+ * Newton's method, falling back to bisection where the curve is too flat for Newton's method
+ * to converge. {@link #getInterpolation(float)} does not allocate.
+ * <p>
+ * Instances should be vended through {@link #of(float, float, float, float)}, which returns
+ * a single shared instance for each distinct set of control points.
+ */
+public final class CubicBezierInterpolator implements Interpolator {
+    private static final int NEWTON_ITERATIONS = 4;
+    private static final float NEWTON_MIN_SLOPE = 0.001f;
+    private static final float SUBDIVISION_PRECISION = 0.0000001f;
+    private static final int SUBDIVISION_MAX_ITERATIONS = 10;
+
+    private static final int SPLINE_TABLE_SIZE = 11;
+    private static final float SAMPLE_STEP_SIZE = 1f / (SPLINE_TABLE_SIZE - 1);
+
+    private static final Map<Key, CubicBezierInterpolator> INTERNED = new HashMap<>();
+
+    /**
+     * The standard material design curve for elements that move between on-screen positions.
+     * Equivalent to {@code FastOutSlowInInterpolator} from the support library.
+     */
+    public static final CubicBezierInterpolator FAST_OUT_SLOW_IN = of(0.4f, 0f, 0.2f, 1f);
+
+    /**
+     * The material design curve for elements that leave the screen.
+     * Equivalent to {@code FastOutLinearInInterpolator} from the support library.
+     */
+    public static final CubicBezierInterpolator FAST_OUT_LINEAR_IN = of(0.4f, 0f, 1f, 1f);
+
+    /**
+     * The material design curve for elements that enter the screen.
+     * Equivalent to {@code LinearOutSlowInInterpolator} from the support library.
+     */
+    public static final CubicBezierInterpolator LINEAR_OUT_SLOW_IN = of(0f, 0f, 0.2f, 1f);
+
+
+    private final float x1, y1, x2, y2;
+    private final boolean linear;
+
+    private final float ax, bx, cx;
+    private final float ay, by, cy;
+    private final float[] sampleValues;
+
+
+    //region Creation
+
+    /**
+     * Returns the interpolator for a given pair of control points, creating it
+     * if no interpolator has previously been requested for the control points.
+     *
+     * @param x1 The x coordinate of the first control point. Must be in the range {@code 0..1}.
+     * @param y1 The y coordinate of the first control point.
+     * @param x2 The x coordinate of the second control point. Must be in the range {@code 0..1}.
+     * @param y2 The y coordinate of the second control point.
+     * @return The shared interpolator for the control points.
+     * @throws IllegalArgumentException if either x coordinate is outside of {@code 0..1}.
+     */
+    public static @NonNull CubicBezierInterpolator of(float x1, float y1, float x2, float y2) {
+        final Key key = new Key(x1, y1, x2, y2);
+        synchronized (INTERNED) {
+            CubicBezierInterpolator interpolator = INTERNED.get(key);
+            if (interpolator == null) {
+                interpolator = new CubicBezierInterpolator(x1, y1, x2, y2);
+                INTERNED.put(key, interpolator);
+            }
+            return interpolator;
+        }
+    }
+
+    private CubicBezierInterpolator(float x1, float y1, float x2, float y2) {
+        if (x1 < 0f || x1 > 1f || x2 < 0f || x2 > 1f) {
+            throw new IllegalArgumentException("x coordinates must be in the range 0..1");
+        }
+
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+        this.linear = (x1 == y1 && x2 == y2);
+
+        this.cx = 3f * x1;
+        this.bx = 3f * (x2 - x1) - cx;
+        this.ax = 1f - cx - bx;
+
+        this.cy = 3f * y1;
+        this.by = 3f * (y2 - y1) - cy;
+        this.ay = 1f - cy - by;
+
+        this.sampleValues = new float[SPLINE_TABLE_SIZE];
+        if (!linear) {
+            for (int i = 0; i < SPLINE_TABLE_SIZE; i++) {
+                sampleValues[i] = sampleCurveX(i * SAMPLE_STEP_SIZE);
+            }
+        }
+    }
+
+    //endregion
+
+
+    //region Solving
+
+    private float sampleCurveX(float t) {
+        return ((ax * t + bx) * t + cx) * t;
+    }
+
+    private float sampleCurveY(float t) {
+        return ((ay * t + by) * t + cy) * t;
+    }
+
+    private float sampleCurveDerivativeX(float t) {
+        return (3f * ax * t + 2f * bx) * t + cx;
+    }
+
+    private float solveCurveX(float x) {
+        int sample = 1;
+        final int lastSample = SPLINE_TABLE_SIZE - 1;
+        float intervalStart = 0f;
+        while (sample != lastSample && sampleValues[sample] <= x) {
+            intervalStart += SAMPLE_STEP_SIZE;
+            sample++;
+        }
+        sample--;
+
+        final float distance = (x - sampleValues[sample]) /
+                (sampleValues[sample + 1] - sampleValues[sample]);
+        final float guess = intervalStart + distance * SAMPLE_STEP_SIZE;
+
+        final float initialSlope = sampleCurveDerivativeX(guess);
+        if (initialSlope >= NEWTON_MIN_SLOPE) {
+            return newtonRaphsonIterate(x, guess);
+        } else if (initialSlope == 0f) {
+            return guess;
+        } else {
+            return binarySubdivide(x, intervalStart, intervalStart + SAMPLE_STEP_SIZE);
+        }
+    }
+
+    private float newtonRaphsonIterate(float x, float guess) {
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            final float slope = sampleCurveDerivativeX(guess);
+            if (slope == 0f) {
+                return guess;
+            }
+            final float currentX = sampleCurveX(guess) - x;
+            guess -= currentX / slope;
+        }
+        return guess;
+    }
+
+    private float binarySubdivide(float x, float lower, float upper) {
+        float currentX, currentT;
+        int i = 0;
+        do {
+            currentT = lower + (upper - lower) / 2f;
+            currentX = sampleCurveX(currentT) - x;
+            if (currentX > 0f) {
+                upper = currentT;
+            } else {
+                lower = currentT;
+            }
+        } while (Math.abs(currentX) > SUBDIVISION_PRECISION && ++i < SUBDIVISION_MAX_ITERATIONS);
+        return currentT;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (linear) {
+            return input;
+        }
+
+        if (input <= 0f) {
+            return 0f;
+        } else if (input >= 1f) {
+            return 1f;
+        }
+
+        return sampleCurveY(solveCurveX(input));
+    }
+
+    //endregion
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final CubicBezierInterpolator that = (CubicBezierInterpolator) o;
+        return (Float.compare(that.x1, x1) == 0 &&
+                Float.compare(that.y1, y1) == 0 &&
+                Float.compare(that.x2, x2) == 0 &&
+                Float.compare(that.y2, y2) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return Key.hashCode(x1, y1, x2, y2);
+    }
+
+    @Override
+    public String toString() {
+        return "CubicBezierInterpolator{" +
+                "x1=" + x1 +
+                ", y1=" + y1 +
+                ", x2=" + x2 +
+                ", y2=" + y2 +
+                '}';
+    }
+
+
+    private static final class Key {
+        private final float x1, y1, x2, y2;
+
+        Key(float x1, float y1, float x2, float y2) {
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+        }
+
+        static int hashCode(float x1, float y1, float x2, float y2) {
+            int result = Float.floatToIntBits(x1);
+            result = 31 * result + Float.floatToIntBits(y1);
+            result = 31 * result + Float.floatToIntBits(x2);
+            result = 31 * result + Float.floatToIntBits(y2);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return (Float.compare(key.x1, x1) == 0 &&
+                    Float.compare(key.y1, y1) == 0 &&
+                    Float.compare(key.x2, x2) == 0 &&
+                    Float.compare(key.y2, y2) == 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode(x1, y1, x2, y2);
+        }
+    }
+}
@@ -15,12 +15,20 @@
 */
 package is.hello.go99;
 
+import android.content.ContentResolver;
 import android.content.res.Resources;
+import android.provider.Settings;
 import android.view.View;
 import android.view.ViewPropertyAnimator;
 
 import org.junit.Test;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import is.hello.go99.core.AnimeMath;
+
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.doReturn;
@@ -44,27 +52,40 @@ public class AnimeTests extends Go99TestCase {
     }
 
     @Test
-    public void interpolateFloats() throws Exception {
-        final float MIN = -1f,
-                    MAX = 1f;
-
-        assertThat(Anime.interpolateFloats(0.00f, MIN, MAX), is(-1f));
-        assertThat(Anime.interpolateFloats(0.25f, MIN, MAX), is(-0.5f));
-        assertThat(Anime.interpolateFloats(0.50f, MIN, MAX), is(0f));
-        assertThat(Anime.interpolateFloats(0.75f, MIN, MAX), is(0.5f));
-        assertThat(Anime.interpolateFloats(1.00f, MIN, MAX), is(1f));
+    public void interpolationDelegatesToAnimeMath() throws Exception {
+        // The math itself is covered by AnimeMathTests in anime-core.
+        assertThat(Anime.interpolateFloats(0.25f, -1f, 1f),
+                   is(AnimeMath.interpolateFloats(0.25f, -1f, 1f)));
+        assertThat(Anime.interpolateColors(0.25f, 0xff000000, 0xffffffff),
+                   is(AnimeMath.interpolateColors(0.25f, 0xff000000, 0xffffffff)));
+        assertThat(Anime.interpolateColorsLinear(0.25f, 0xff000000, 0xffffffff),
+                   is(AnimeMath.interpolateColorsLinear(0.25f, 0xff000000, 0xffffffff)));
+        assertThat(Anime.interpolateColorsLinearPremultiplied(0.25f, 0x00000000, 0xffffffff),
+                   is(AnimeMath.interpolateColorsLinearPremultiplied(0.25f, 0x00000000, 0xffffffff)));
+
+        final float[] floats = new float[1];
+        Anime.interpolateFloats(0.5f, new float[] { 0f }, new float[] { 2f }, floats, 0, 1);
+        assertThat(floats[0], is(1f));
+
+        final int[] colors = new int[2];
+        Anime.interpolateColors(0.5f, new int[] { 0xff000000 }, new int[] { 0xffffffff },
+                                colors, 0, 1);
+        Anime.interpolateColorsLinear(0.5f, new int[] { 0x00000000 }, new int[] { 0xffffffff },
+                                      colors, 1, 1, true);
+        assertThat(colors[0], is(0xff7f7f7f));
+        assertThat(colors[1], is(0x80ffffff));
     }
 
     @Test
-    public void interpolateColors() throws Exception {
-        final int MIN = 0xff000000,
-                  MAX = 0xffffffff;
-
-        assertThat(Anime.interpolateColors(0.00f, MIN, MAX), is(0xff000000));
-        assertThat(Anime.interpolateColors(0.25f, MIN, MAX), is(0xff3F3F3F));
-        assertThat(Anime.interpolateColors(0.50f, MIN, MAX), is(0xff7F7F7F));
-        assertThat(Anime.interpolateColors(0.75f, MIN, MAX), is(0xffBFBFBF));
-        assertThat(Anime.interpolateColors(1.00f, MIN, MAX), is(0xffFFFFFF));
+    public void areSystemAnimationsDisabled() throws Exception {
+        final ContentResolver contentResolver = getContext().getContentResolver();
+        assertThat(Anime.areSystemAnimationsDisabled(getContext()), is(false));
+
+        Settings.Global.putFloat(contentResolver, Settings.Global.ANIMATOR_DURATION_SCALE, 0f);
+        assertThat(Anime.areSystemAnimationsDisabled(getContext()), is(true));
+
+        Settings.Global.putFloat(contentResolver, Settings.Global.ANIMATOR_DURATION_SCALE, 0.5f);
+        assertThat(Anime.areSystemAnimationsDisabled(getContext()), is(false));
     }
 
     @Test
@@ -90,4 +111,19 @@ public class AnimeTests extends Go99TestCase {
         Anime.removeAnimatingView(test);
         assertThat(Anime.isAnimating(test), is(false));
     }
+
+    @Test
+    public void dump() throws Exception {
+        View test = new View(getContext());
+        Anime.addAnimatingView(test);
+
+        StringWriter output = new StringWriter();
+        Anime.dump(new PrintWriter(output));
+        Anime.removeAnimatingView(test);
+
+        String dump = output.toString();
+        assertThat(dump, containsString("animating views: 1"));
+        assertThat(dump, containsString(test.toString()));
+        assertThat(dump, containsString("AnimatorTrace"));
+    }
 }
@@ -18,27 +18,42 @@ package is.hello.go99.animators;
 import android.animation.Animator;
 import android.animation.AnimatorSet;
 import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.os.Build;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.view.View;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.widget.FrameLayout;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.robolectric.Robolectric;
 import org.robolectric.util.Scheduler;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import is.hello.go99.Anime;
 import is.hello.go99.Go99TestCase;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -131,6 +146,344 @@ public class AnimatorContextTests extends Go99TestCase {
         verify(animatorContext).endAnimation("Test animation");
     }
 
+    @Test
+    public void hardwareLayerBudget() throws Exception {
+        animatorContext.setHardwareLayerBudget(2);
+        assertThat(animatorContext.acquireHardwareLayer(), is(true));
+        assertThat(animatorContext.acquireHardwareLayer(), is(true));
+        assertThat(animatorContext.acquireHardwareLayer(), is(false));
+        assertThat(animatorContext.getActiveHardwareLayerCount(), is(equalTo(2)));
+
+        animatorContext.releaseHardwareLayer();
+        assertThat(animatorContext.getActiveHardwareLayerCount(), is(equalTo(1)));
+        assertThat(animatorContext.acquireHardwareLayer(), is(true));
+    }
+
+    @Test
+    public void adaptiveQuality() throws Exception {
+        animatorContext.setAdaptiveQualityEnabled(true);
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_FULL)));
+
+        animatorContext.onFrameRendered(AnimatorContext.DROPPED_FRAMES_TO_DEGRADE - 1);
+        for (int i = 0; i < AnimatorContext.SMOOTH_FRAMES_TO_FORGIVE; i++) {
+            animatorContext.onFrameRendered(0);
+        }
+        animatorContext.onFrameRendered(1);
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_FULL)));
+
+        animatorContext.onFrameRendered(AnimatorContext.DROPPED_FRAMES_TO_DEGRADE);
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_REDUCED_STAGGER)));
+
+        for (int i = 0; i < 4; i++) {
+            animatorContext.onFrameRendered(AnimatorContext.DROPPED_FRAMES_TO_DEGRADE);
+        }
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_INSTANT)));
+
+        SystemClock.sleep(AnimatorContext.QUALITY_RECOVERY_MILLIS);
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_INSTANT)));
+
+        animatorContext.onFrameRendered(0);
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_REDUCED_PROPERTIES)));
+
+        animatorContext.setAdaptiveQualityEnabled(false);
+        assertThat(animatorContext.getQualityLevel(), is(equalTo(AnimatorContext.QUALITY_FULL)));
+    }
+
+    @Test
+    public void pauseAndResume() throws Exception {
+        Robolectric.getForegroundThreadScheduler().pause();
+        animatorContext.setInstanceTrackingEnabled(true);
+
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, animatorContext)
+                                                    .translationY(100f);
+        animator.start();
+
+        final Runnable idleTask = mock(Runnable.class);
+        animatorContext.runWhenIdle(idleTask);
+
+        animatorContext.pause();
+        assertThat(animatorContext.isPaused(), is(true));
+        assertThat(animator.isPaused(), is(true));
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+        verify(idleTask, never()).run();
+
+        animatorContext.resume();
+        assertThat(animatorContext.isPaused(), is(false));
+        assertThat(animator.isPaused(), is(false));
+
+        animator.end();
+        verify(idleTask).run();
+        assertThat(view.getTranslationY(), is(equalTo(100f)));
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(0)));
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    @Test
+    public void pauseWithoutInstanceTracking() throws Exception {
+        Robolectric.getForegroundThreadScheduler().pause();
+        assertThat(animatorContext.isInstanceTrackingEnabled(), is(false));
+
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, animatorContext)
+                                                    .translationY(100f);
+        animator.start();
+
+        final ValueAnimator owned = ValueAnimator.ofFloat(0f, 1f);
+        final AnimatorContext.Transaction transaction =
+                animatorContext.transaction(null, 0, new AnimatorContext.TransactionConsumer() {
+                    @Override
+                    public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                        transaction.takeOwnership(owned, "Owned animator");
+                        transaction.animatorFor(new FrameLayout(getContext())).alpha(0f);
+                    }
+                }, null);
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(3)));
+
+        animatorContext.pause();
+        assertThat(animator.isPaused(), is(true));
+        assertThat(transaction.toAnimator().isPaused(), is(true));
+        assertThat(owned.isPaused(), is(true));
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000L);
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(3)));
+
+        animatorContext.resume();
+        assertThat(animator.isPaused(), is(false));
+        assertThat(owned.isPaused(), is(false));
+
+        animator.end();
+        transaction.end();
+        assertThat(view.getTranslationY(), is(equalTo(100f)));
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void pauseHoldsBatchedStarts() throws Exception {
+        final Scheduler scheduler = Robolectric.getForegroundThreadScheduler();
+        scheduler.pause();
+
+        animatorContext.setStartBatchingEnabled(true);
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, animatorContext)
+                                                    .translationY(100f);
+        animator.start();
+
+        animatorContext.pause();
+        scheduler.advanceBy(1000);
+        assertThat(animator.isRunning(), is(false));
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(1)));
+
+        animatorContext.resume();
+        animatorContext.flushScheduledStarts();
+        assertThat(animator.isRunning(), is(true));
+
+        animator.end();
+        assertThat(view.getTranslationY(), is(equalTo(100f)));
+    }
+
+    @Test
+    public void cancelAll() throws Exception {
+        animatorContext.setInstanceTrackingEnabled(true);
+
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, animatorContext)
+                                                    .translationY(100f);
+        animator.start();
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(1)));
+
+        animatorContext.cancelAll();
+        assertThat(Anime.isAnimating(view), is(false));
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void endAll() throws Exception {
+        animatorContext.setInstanceTrackingEnabled(true);
+
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, animatorContext)
+                                                    .translationY(100f);
+        animator.start();
+
+        animatorContext.endAll();
+        assertThat(view.getTranslationY(), is(equalTo(100f)));
+        assertThat(Anime.isAnimating(view), is(false));
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void trackingIsOptIn() throws Exception {
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, animatorContext)
+                                                    .translationY(100f);
+        animator.start();
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(0)));
+
+        animatorContext.setInstanceTrackingEnabled(true);
+        final ValueAnimator bound = ValueAnimator.ofFloat(0f, 1f);
+        animatorContext.bind(bound, "Bound animator");
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(1)));
+
+        animatorContext.setInstanceTrackingEnabled(false);
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(0)));
+
+        animator.end();
+    }
+
+    @Test
+    public void cancelAllStopsDelayedBoundAnimators() throws Exception {
+        Robolectric.getForegroundThreadScheduler().pause();
+        animatorContext.setInstanceTrackingEnabled(true);
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setStartDelay(500);
+        animatorContext.bind(animator, "Delayed animator");
+        animator.start();
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(1)));
+
+        animatorContext.cancelAll();
+        assertThat(animator.isStarted(), is(false));
+        assertThat(animatorContext.getTrackedAnimatorCount(), is(equalTo(0)));
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void cancelAllStopsRunningTransactions() throws Exception {
+        final FrameLayout view = new FrameLayout(getContext());
+        final OnAnimationCompleted onCompleted = mock(OnAnimationCompleted.class);
+        animatorContext.transaction(null, 0, new AnimatorContext.TransactionConsumer() {
+            @Override
+            public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                transaction.animatorFor(view).translationY(100f);
+            }
+        }, onCompleted);
+
+        animatorContext.cancelAll();
+        verify(onCompleted).onAnimationCompleted(false);
+        assertThat(Anime.isAnimating(view), is(false));
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void watchdogForcesEnd() throws Exception {
+        final AnimatorContext.WatchdogListener listener = mock(AnimatorContext.WatchdogListener.class);
+        animatorContext.setWatchdogListener(listener);
+        animatorContext.setWatchdogTimeout(1000L, true);
+
+        final Runnable idleTask = mock(Runnable.class);
+        animatorContext.beginAnimation("Dangling animation");
+        animatorContext.runWhenIdle(idleTask);
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000L);
+        verify(listener).onAnimationTimedOut(animatorContext, "Dangling animation", 1000L, true);
+        verify(idleTask).run();
+        assertThat(animatorContext.getTimedOutAnimationCount(), is(equalTo(1)));
+
+        // The late end is absorbed instead of driving the counter negative.
+        animatorContext.endAnimation("Dangling animation");
+    }
+
+    @Test
+    public void watchdogForcesEndByToken() throws Exception {
+        animatorContext.setWatchdogListener(mock(AnimatorContext.WatchdogListener.class));
+        animatorContext.setWatchdogTimeout(1000L, true);
+
+        final int stuck = animatorContext.beginAnimation("Same name");
+        Robolectric.getForegroundThreadScheduler().advanceBy(500L);
+        final int live = animatorContext.beginAnimation("Same name");
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(500L);
+        assertThat(animatorContext.getTimedOutAnimationCount(), is(equalTo(1)));
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(1)));
+
+        // The live animation's end is not absorbed by the forced end.
+        final Runnable idleTask = mock(Runnable.class);
+        animatorContext.runWhenIdle(idleTask);
+        animatorContext.endAnimation(live);
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(0)));
+        Robolectric.getForegroundThreadScheduler().advanceToLastPostedRunnable();
+        verify(idleTask).run();
+
+        animatorContext.endAnimation(stuck);
+        assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(0)));
+        assertThat(animatorContext.getTimedOutAnimationCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void systraceSections() throws Exception {
+        AnimatorContext.SYSTRACE = true;
+        try {
+            final FrameLayout view = new FrameLayout(getContext());
+            final Runnable idleTask = mock(Runnable.class);
+            animatorContext.beginAnimation("Traced animation");
+            animatorContext.runWhenIdle(idleTask);
+            animatorContext.transaction(null, 0, new AnimatorContext.TransactionConsumer() {
+                @Override
+                public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                    transaction.animatorFor(view).alpha(0f);
+                }
+            }, null);
+            animatorContext.endAnimation("Traced animation");
+            animatorContext.endAll();
+
+            verify(idleTask).run();
+            assertThat(view.getAlpha(), is(equalTo(0f)));
+        } finally {
+            AnimatorContext.SYSTRACE = false;
+        }
+    }
+
+    @Test
+    public void recordsTransactionPerformance() throws Exception {
+        final PerformanceRecorder recorder = mock(PerformanceRecorder.class);
+        animatorContext.setPerformanceRecorder(recorder);
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        final AnimatorContext.TransactionConsumer consumer = new AnimatorContext.TransactionConsumer() {
+            @Override
+            public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                transaction.takeOwnership(animator, "Recorded animation");
+            }
+        };
+        animatorContext.transaction(null, 0, consumer, null);
+        animator.end();
+
+        verify(recorder).record(eq(consumer.getClass().getName().hashCode()), eq(1),
+                                anyLong(), eq(0), eq(0L));
+
+        animatorContext.setPerformanceRecorder(null);
+    }
+
+    @Test
+    public void dump() throws Exception {
+        animatorContext.beginAnimation("Test animation");
+        animatorContext.runWhenIdle(mock(Runnable.class));
+
+        final StringWriter output = new StringWriter();
+        animatorContext.dump(new PrintWriter(output));
+        animatorContext.endAnimation("Test animation");
+
+        final String dump = output.toString();
+        assertThat(dump, containsString(animatorContext.toString()));
+        assertThat(dump, containsString("active animations: 1"));
+        assertThat(dump, containsString("idle tasks: 1"));
+        assertThat(dump, containsString("running transactions: 0"));
+    }
+
+    @Test
+    public void pausedContextIsNotIdle() throws Exception {
+        final Runnable idleTask = mock(Runnable.class);
+
+        animatorContext.pause();
+        animatorContext.runWhenIdle(idleTask);
+        verify(idleTask, never()).run();
+
+        animatorContext.resume();
+        verify(idleTask).run();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void bindBlocksNotBindable() throws Exception {
         final FrameLayout fakeView = new FrameLayout(getContext());
@@ -206,6 +559,208 @@ public class AnimatorContextTests extends Go99TestCase {
             assertThat(multiple.toAnimator(), is(sameInstance(multiple.toAnimator())));
         }
 
+        @Test
+        public void hardwareLayersOption() {
+            final AnimatorContext.Transaction withLayers =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT,
+                                                    AnimatorContext.OPTION_HARDWARE_LAYERS);
+            final FrameLayout view = spy(new FrameLayout(getContext()));
+            doReturn(true).when(view).isHardwareAccelerated();
+            withLayers.animatorFor(view).alpha(0f);
+
+            Robolectric.getForegroundThreadScheduler().pause();
+            withLayers.start();
+
+            assertThat(view.getLayerType(), is(equalTo(View.LAYER_TYPE_HARDWARE)));
+        }
+
+        @Test
+        public void animationBudgetEndsOldest() {
+            Robolectric.getForegroundThreadScheduler().pause();
+            animatorContext.setAnimationBudget(1);
+
+            final AnimatorContext.Transaction oldest =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            final ValueAnimator oldestAnimator = spy(ValueAnimator.ofFloat(0f, 1f));
+            oldest.takeOwnership(oldestAnimator, "Oldest animation");
+            oldest.start();
+            assertThat(animatorContext.getRunningTransactionAnimatorCount(), is(equalTo(1)));
+
+            final AnimatorContext.Transaction newest =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            final ValueAnimator newestAnimator = ValueAnimator.ofFloat(0f, 1f);
+            newest.takeOwnership(newestAnimator, "Newest animation");
+            newest.start();
+
+            verify(oldestAnimator).end();
+            assertThat(newestAnimator.isRunning(), is(true));
+            assertThat(animatorContext.getRunningTransactionAnimatorCount(), is(equalTo(1)));
+            assertThat(animatorContext.getOverBudgetCount(), is(equalTo(1)));
+
+            newestAnimator.end();
+            assertThat(animatorContext.getRunningTransactionAnimatorCount(), is(equalTo(0)));
+        }
+
+        @Test
+        public void animationBudgetSkipsNew() {
+            Robolectric.getForegroundThreadScheduler().pause();
+            animatorContext.setAnimationBudget(1);
+            animatorContext.setBudgetPolicy(AnimatorContext.BUDGET_POLICY_SKIP_NEW);
+
+            final AnimatorContext.Transaction oldest =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            final ValueAnimator oldestAnimator = ValueAnimator.ofFloat(0f, 1f);
+            oldest.takeOwnership(oldestAnimator, "Oldest animation");
+            oldest.start();
+
+            final FrameLayout view = new FrameLayout(getContext());
+            final AnimatorContext.Transaction newest =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            newest.animatorFor(view).translationY(100f);
+            final ValueAnimator newestAnimator = spy(ValueAnimator.ofFloat(0f, 1f));
+            newest.takeOwnership(newestAnimator, "Newest animation");
+            newest.start();
+
+            assertThat(oldestAnimator.isRunning(), is(true));
+            assertThat(view.getTranslationY(), is(equalTo(100f)));
+            verify(newestAnimator).end();
+            assertThat(newest.isRunning(), is(false));
+            assertThat(animatorContext.getRunningTransactionAnimatorCount(), is(equalTo(1)));
+            assertThat(animatorContext.getOverBudgetCount(), is(equalTo(1)));
+        }
+
+        @Test
+        public void reducedQuality() {
+            Robolectric.getForegroundThreadScheduler().pause();
+            animatorContext.setAdaptiveQualityEnabled(true);
+            animatorContext.onFrameRendered(AnimatorContext.DROPPED_FRAMES_TO_DEGRADE);
+
+            final AnimatorContext.Transaction staggered =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            final ValueAnimator staggeredAnimator = ValueAnimator.ofFloat(0f, 1f);
+            staggeredAnimator.setStartDelay(100);
+            staggered.takeOwnership(staggeredAnimator, "Staggered animation");
+            staggered.start();
+            assertThat(staggeredAnimator.getStartDelay(), is(equalTo(50L)));
+
+            animatorContext.onFrameRendered(AnimatorContext.DROPPED_FRAMES_TO_DEGRADE);
+
+            final FrameLayout view = new FrameLayout(getContext());
+            final AnimatorContext.Transaction reduced =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            reduced.animatorFor(view)
+                   .withStartDelay(100)
+                   .scale(0.5f)
+                   .alpha(0.5f);
+            reduced.start();
+            assertThat(reduced.toAnimator().getStartDelay(), is(equalTo(0L)));
+            assertThat(view.getScaleX(), is(equalTo(0.5f)));
+            assertThat(view.getAlpha(), is(equalTo(1f)));
+
+            animatorContext.onFrameRendered(AnimatorContext.DROPPED_FRAMES_TO_DEGRADE);
+
+            final AnimatorContext.Transaction instant =
+                    new AnimatorContext.Transaction(animatorContext, AnimatorTemplate.DEFAULT);
+            instant.animatorFor(view).alpha(0f);
+            instant.start();
+            assertThat(view.getAlpha(), is(equalTo(0f)));
+            assertThat(instant.isRunning(), is(false));
+        }
+
+        @Test
+        public void instantMode() {
+            Robolectric.getForegroundThreadScheduler().pause();
+            animatorContext.setInstantMode(true);
+
+            final FrameLayout view1 = new FrameLayout(getContext());
+            final FrameLayout view2 = new FrameLayout(getContext());
+            final OnAnimationCompleted onCompleted = mock(OnAnimationCompleted.class);
+            final AnimatorContext.Transaction transaction = animatorContext.transaction(null, 0, new AnimatorContext.TransactionConsumer() {
+                @Override
+                public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                    transaction.animatorFor(view1).alpha(0f);
+                    transaction.animatorFor(view2).translationX(100f);
+                }
+            }, onCompleted);
+
+            verify(onCompleted).onAnimationCompleted(true);
+            assertThat(view1.getAlpha(), is(equalTo(0f)));
+            assertThat(view2.getTranslationX(), is(equalTo(100f)));
+            assertThat(Anime.isAnimating(view1), is(false));
+            assertThat(transaction.isRunning(), is(false));
+        }
+
+        @Test
+        public void instantModeWithStartBatching() {
+            Robolectric.getForegroundThreadScheduler().pause();
+            animatorContext.setInstantMode(true);
+            animatorContext.setStartBatchingEnabled(true);
+
+            final FrameLayout view1 = new FrameLayout(getContext());
+            final FrameLayout view2 = new FrameLayout(getContext());
+            final Animator.AnimatorListener listener = mock(Animator.AnimatorListener.class);
+            final OnAnimationCompleted onCompleted = mock(OnAnimationCompleted.class);
+            animatorContext.transaction(null, 0, new AnimatorContext.TransactionConsumer() {
+                @Override
+                public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                    transaction.animatorFor(view1).alpha(0f).addListener(listener);
+                    transaction.animatorFor(view2).translationX(100f);
+                }
+            }, onCompleted);
+
+            assertThat(view1.getAlpha(), is(equalTo(0f)));
+            assertThat(view2.getTranslationX(), is(equalTo(100f)));
+
+            final InOrder inOrder = inOrder(listener, onCompleted);
+            inOrder.verify(listener).onAnimationEnd(any(Animator.class));
+            inOrder.verify(onCompleted).onAnimationCompleted(true);
+            assertThat(animatorContext.getActiveAnimationCount(), is(equalTo(0)));
+        }
+
+        @Test
+        public void cancelAllStopsPendingTransactions() {
+            animatorContext.setInstanceTrackingEnabled(true);
+            animatorContext.beginAnimation("Blocker");
+
+            final FrameLayout view = new FrameLayout(getContext());
+            final OnAnimationCompleted onCompleted = mock(OnAnimationCompleted.class);
+            animatorContext.transaction(null, AnimatorContext.OPTION_START_ON_IDLE, new AnimatorContext.TransactionConsumer() {
+                @Override
+                public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                    transaction.animatorFor(view).alpha(0f);
+                }
+            }, onCompleted);
+
+            animatorContext.cancelAll();
+            animatorContext.endAnimation("Blocker");
+
+            verify(onCompleted, never()).onAnimationCompleted(anyBoolean());
+            assertThat(view.getAlpha(), is(equalTo(1f)));
+            assertThat(Anime.isAnimating(view), is(false));
+        }
+
+        @Test
+        public void endAllAppliesPendingTransactions() {
+            animatorContext.setInstanceTrackingEnabled(true);
+            animatorContext.beginAnimation("Blocker");
+
+            final FrameLayout view = new FrameLayout(getContext());
+            final OnAnimationCompleted onCompleted = mock(OnAnimationCompleted.class);
+            animatorContext.transaction(null, AnimatorContext.OPTION_START_ON_IDLE, new AnimatorContext.TransactionConsumer() {
+                @Override
+                public void consume(@NonNull AnimatorContext.Transaction transaction) {
+                    transaction.animatorFor(view).alpha(0f);
+                }
+            }, onCompleted);
+
+            animatorContext.endAll();
+            verify(onCompleted).onAnimationCompleted(true);
+            assertThat(view.getAlpha(), is(equalTo(0f)));
+
+            animatorContext.endAnimation("Blocker");
+            assertThat(Anime.isAnimating(view), is(false));
+        }
+
         @Test
         public void cancelBeforeStart() {
             final AnimatorTemplate template = new AnimatorTemplate(Anime.DURATION_SLOW,
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Test;
+
+import is.hello.go99.Anime;
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AnimatorDebugOverlayTests extends Go99TestCase {
+    @Test
+    public void formatCount() throws Exception {
+        final char[] buffer = new char[32];
+
+        final int length = AnimatorDebugOverlay.formatCount(buffer, "active ", 42);
+        assertThat(length, is(equalTo(9)));
+        assertThat(new String(buffer, 0, length), is(equalTo("active 42")));
+
+        final int zeroLength = AnimatorDebugOverlay.formatCount(buffer, "idle ", 0);
+        assertThat(new String(buffer, 0, zeroLength), is(equalTo("idle 0")));
+
+        final int maxLength = AnimatorDebugOverlay.formatCount(buffer, "", Integer.MAX_VALUE);
+        assertThat(new String(buffer, 0, maxLength),
+                   is(equalTo(Integer.toString(Integer.MAX_VALUE))));
+    }
+
+    @Test
+    public void draw() throws Exception {
+        final AnimatorContext animatorContext = new AnimatorContext(getClass().getSimpleName());
+        final AnimatorDebugOverlay overlay = new AnimatorDebugOverlay(getContext());
+        overlay.setAnimatorContext(animatorContext);
+        overlay.layout(0, 0, 100, 200);
+
+        overlay.onFrame(16000000L);
+        overlay.onFrame(32000000L);
+        overlay.onFrame(80000000L);
+
+        final Bitmap bitmap = Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888);
+        overlay.draw(new Canvas(bitmap));
+    }
+
+    @Test
+    public void redrawsOnlyWhenChanged() throws Exception {
+        final AnimatorContext animatorContext = new AnimatorContext(getClass().getSimpleName());
+        final AnimatorDebugOverlay overlay = new AnimatorDebugOverlay(getContext());
+        overlay.setAnimatorContext(animatorContext);
+        overlay.layout(0, 0, 100, 200);
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888));
+
+        assertThat(overlay.onFrame(16000000L), is(true));
+        overlay.draw(canvas);
+        assertThat(overlay.onFrame(32000000L), is(false));
+
+        final View view = new View(getContext());
+        Anime.addAnimatingView(view);
+        assertThat(overlay.onFrame(48000000L), is(true));
+        overlay.draw(canvas);
+        assertThat(overlay.onFrame(64000000L), is(true));
+
+        Anime.removeAnimatingView(view);
+        assertThat(overlay.onFrame(80000000L), is(true));
+        overlay.draw(canvas);
+        assertThat(overlay.onFrame(96000000L), is(false));
+    }
+
+    @Test
+    public void observesFramesOnlyWhileAttached() throws Exception {
+        final AnimatorDebugOverlay overlay = new AnimatorDebugOverlay(getContext());
+        assertThat(overlay.isObservingFrames(), is(false));
+
+        overlay.setVisibility(View.GONE);
+        overlay.setVisibility(View.VISIBLE);
+        assertThat(overlay.isObservingFrames(), is(false));
+    }
+}
@@ -21,7 +21,10 @@ import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.PointF;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.os.Build;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.Animation;
@@ -131,4 +134,21 @@ public class AnimatorTemplateTests extends Go99TestCase {
         assertThat(colorAnimator.getDuration(),
                    is(equalTo(template.duration)));
     }
+
+    @Test
+    public void createPooledAnimators() throws Exception {
+        final AnimatorTemplate template = AnimatorTemplate.DEFAULT;
+        final ValueAnimator[] animators = {
+                template.createRectFAnimator(new RectF(0f, 0f, 250f, 250f),
+                                             new RectF(250f, 250f, 500f, 500f)),
+                template.createPointFAnimator(new PointF(0f, 0f), new PointF(100f, 100f)),
+                template.createMatrixAnimator(new Matrix(), new Matrix()),
+        };
+        for (final ValueAnimator animator : animators) {
+            assertThat(animator.getInterpolator(),
+                       is(equalTo((TimeInterpolator) template.interpolator)));
+            assertThat(animator.getDuration(),
+                       is(equalTo(template.duration)));
+        }
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class AnimatorTraceTests extends Go99TestCase {
+    @Before
+    public void setUp() {
+        AnimatorTrace.setCapacity(4);
+    }
+
+    @After
+    public void tearDown() {
+        AnimatorTrace.setCapacity(AnimatorTrace.DEFAULT_CAPACITY);
+        AnimatorTrace.setEnabled(true);
+    }
+
+    private static String dump() {
+        final StringWriter output = new StringWriter();
+        AnimatorTrace.dump(new PrintWriter(output));
+        return output.toString();
+    }
+
+    @Test
+    public void setCapacityRoundsUp() throws Exception {
+        AnimatorTrace.setCapacity(5);
+        assertThat(AnimatorTrace.getCapacity(), is(equalTo(8)));
+
+        AnimatorTrace.setCapacity(1);
+        assertThat(AnimatorTrace.getCapacity(), is(equalTo(1)));
+    }
+
+    @Test
+    public void recordsContextEvents() throws Exception {
+        final AnimatorContext animatorContext = new AnimatorContext("Trace context");
+        animatorContext.beginAnimation("Traced animation");
+        animatorContext.endAnimation("Traced animation");
+
+        final String dump = dump();
+        assertThat(dump, containsString("contextCreated"));
+        assertThat(dump, containsString("'Trace context'"));
+        assertThat(dump, containsString("beginAnimation"));
+        assertThat(dump, containsString("endAnimation"));
+        assertThat(dump, containsString("'Traced animation' [0]"));
+    }
+
+    @Test
+    public void overwritesOldestEvents() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            AnimatorTrace.record(AnimatorTrace.EVENT_BEGIN_ANIMATION, 1, "Event " + i, i);
+        }
+
+        final String dump = dump();
+        assertThat(dump, not(containsString("'Event 1'")));
+        assertThat(dump, containsString("'Event 2'"));
+        assertThat(dump, containsString("'Event 5'"));
+        assertThat(dump.indexOf("'Event 2'") < dump.indexOf("'Event 5'"), is(true));
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        AnimatorTrace.setEnabled(false);
+        AnimatorTrace.record(AnimatorTrace.EVENT_PAUSE, 1, "Ignored", 0);
+        assertThat(dump(), not(containsString("Ignored")));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.support.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.Future;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+public class ChromeTraceRecorderTests extends Go99TestCase {
+    @After
+    public void tearDown() {
+        ChromeTraceRecorder.stop();
+    }
+
+    private static String read(@NonNull File file) throws IOException {
+        final StringBuilder contents = new StringBuilder();
+        final BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                contents.append(line).append('\n');
+            }
+        } finally {
+            reader.close();
+        }
+        return contents.toString();
+    }
+
+    @Test
+    public void writeString() throws Exception {
+        final StringWriter writer = new StringWriter();
+        ChromeTraceRecorder.writeString(writer, "a \"quoted\"\\path\n\u0001");
+        assertThat(writer.toString(), is(equalTo("\"a \\\"quoted\\\"\\\\path\\n\\u0001\"")));
+    }
+
+    @Test
+    public void recordsTimeline() throws Exception {
+        final File file = File.createTempFile("trace", ".json");
+        file.deleteOnExit();
+
+        ChromeTraceRecorder.start(file);
+        assertThat(ChromeTraceRecorder.isRecording(), is(true));
+
+        final AnimatorContext animatorContext = new AnimatorContext("Traced context");
+        animatorContext.beginAnimation("Traced animation");
+        animatorContext.runWhenIdle(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        animatorContext.endAnimation("Traced animation");
+        animatorContext.transaction(null, 0, new AnimatorContext.TransactionConsumer() {
+            @Override
+            public void consume(@NonNull AnimatorContext.Transaction transaction) {
+            }
+        }, null);
+
+        final Future<?> finished = ChromeTraceRecorder.stop();
+        assertThat(finished, is(notNullValue()));
+        //noinspection ConstantConditions
+        finished.get();
+        assertThat(ChromeTraceRecorder.isRecording(), is(false));
+
+        final String trace = read(file);
+        assertThat(trace, containsString("{\"traceEvents\":["));
+        assertThat(trace, containsString("\"thread_name\""));
+        assertThat(trace, containsString("\"Traced context\""));
+        assertThat(trace, containsString("{\"ph\":\"b\",\"name\":\"Traced animation\""));
+        assertThat(trace, containsString("{\"ph\":\"e\",\"name\":\"Traced animation\""));
+        assertThat(trace, containsString("\"name\":\"Active animations\""));
+        assertThat(trace, containsString("\"name\":\"Transaction build\""));
+        assertThat(trace, containsString("\"name\":\"Transaction start\""));
+        assertThat(trace.trim().endsWith("]}"), is(true));
+    }
+}
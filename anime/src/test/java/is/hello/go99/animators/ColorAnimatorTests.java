@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.animation.ValueAnimator;
+import android.graphics.Color;
+import android.support.annotation.NonNull;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import is.hello.go99.Anime;
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ColorAnimatorTests extends Go99TestCase {
+    @Test
+    public void evaluate() throws Exception {
+        final int[] colors = { Color.BLACK, Color.WHITE, Color.RED };
+        assertThat(ColorAnimator.evaluate(0.00f, colors), is(equalTo(Color.BLACK)));
+        assertThat(ColorAnimator.evaluate(0.25f, colors),
+                   is(equalTo(Anime.interpolateColors(0.5f, Color.BLACK, Color.WHITE))));
+        assertThat(ColorAnimator.evaluate(0.50f, colors), is(equalTo(Color.WHITE)));
+        assertThat(ColorAnimator.evaluate(0.75f, colors),
+                   is(equalTo(Anime.interpolateColors(0.5f, Color.WHITE, Color.RED))));
+        assertThat(ColorAnimator.evaluate(1.00f, colors), is(equalTo(Color.RED)));
+
+        assertThat(ColorAnimator.evaluate(0.5f, new int[] { Color.GREEN }), is(equalTo(Color.GREEN)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresColors() throws Exception {
+        ColorAnimator.ofColors();
+    }
+
+    @Test
+    public void deliversColors() throws Exception {
+        final ColorAnimator animator = ColorAnimator.ofColors(Color.BLACK, Color.WHITE);
+        animator.setInterpolator(new LinearInterpolator());
+        animator.setDuration(100);
+
+        final List<Integer> colors = new ArrayList<>();
+        animator.addColorUpdateListener(new ColorAnimator.ColorUpdateListener() {
+            @Override
+            public void onColorUpdate(@NonNull ColorAnimator animator, int color) {
+                colors.add(color);
+            }
+        });
+
+        animator.setCurrentPlayTime(50);
+        animator.setCurrentPlayTime(100);
+
+        final int midpoint = Anime.interpolateColors(0.5f, Color.BLACK, Color.WHITE);
+        assertThat(colors, hasItems(midpoint, Color.WHITE));
+        assertThat(animator.getAnimatedColor(), is(equalTo(Color.WHITE)));
+        assertThat((int) animator.getAnimatedValue(), is(equalTo(Color.WHITE)));
+    }
+
+    @Test
+    public void removeAllUpdateListenersKeepsEvaluating() throws Exception {
+        final ColorAnimator animator = ColorAnimator.ofColors(Color.BLACK, Color.WHITE);
+        animator.setInterpolator(new LinearInterpolator());
+        animator.setDuration(100);
+        animator.removeAllUpdateListeners();
+
+        animator.setCurrentPlayTime(100);
+        assertThat(animator.getAnimatedColor(), is(equalTo(Color.WHITE)));
+    }
+
+    @Test
+    public void cloneIsIndependent() throws Exception {
+        final ColorAnimator animator = ColorAnimator.ofColors(Color.BLACK, Color.WHITE);
+        animator.setInterpolator(new LinearInterpolator());
+        animator.setDuration(100);
+
+        final ColorAnimator clone = animator.clone();
+        assertThat(clone, is(not(sameInstance(animator))));
+
+        clone.setCurrentPlayTime(100);
+        assertThat(clone.getAnimatedColor(), is(equalTo(Color.WHITE)));
+        assertThat(animator.getAnimatedColor(), is(equalTo(Color.BLACK)));
+    }
+
+    @Test
+    public void isValueAnimator() throws Exception {
+        final ValueAnimator animator = AnimatorTemplate.DEFAULT.createColorAnimator(Color.BLACK,
+                                                                                    Color.WHITE);
+        assertThat(animator instanceof ColorAnimator, is(true));
+    }
+}
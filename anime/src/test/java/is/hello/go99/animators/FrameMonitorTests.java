@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import org.junit.Test;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+public class FrameMonitorTests extends Go99TestCase {
+    private static final long FRAME = FrameMonitor.DEFAULT_FRAME_INTERVAL_NANOS;
+
+    @Test
+    public void calculateDroppedFrames() throws Exception {
+        assertThat(FrameMonitor.calculateDroppedFrames(0L, FRAME), is(equalTo(0)));
+        assertThat(FrameMonitor.calculateDroppedFrames(FRAME, FRAME), is(equalTo(0)));
+        assertThat(FrameMonitor.calculateDroppedFrames(FRAME + FRAME / 4, FRAME), is(equalTo(0)));
+        assertThat(FrameMonitor.calculateDroppedFrames(FRAME * 2, FRAME), is(equalTo(1)));
+        assertThat(FrameMonitor.calculateDroppedFrames(FRAME * 5, FRAME), is(equalTo(4)));
+        assertThat(FrameMonitor.calculateDroppedFrames(FRAME, FRAME / 2), is(equalTo(1)));
+    }
+
+    @Test
+    public void calculateFrameInterval() throws Exception {
+        assertThat(FrameMonitor.calculateFrameInterval(60f), is(equalTo(FRAME)));
+        assertThat(FrameMonitor.calculateFrameInterval(120f), is(equalTo(8333333L)));
+        assertThat(FrameMonitor.calculateFrameInterval(0f), is(equalTo(FRAME)));
+    }
+
+    @Test
+    public void estimatesFrameIntervalFromMedian() throws Exception {
+        final FrameMonitor.Listener listener = mock(FrameMonitor.Listener.class);
+        final FrameMonitor monitor = new FrameMonitor(listener);
+        monitor.start();
+
+        // A 120Hz display with an occasional dropped frame.
+        final long fastFrame = 8333333L;
+        long frameTime = fastFrame;
+        monitor.doFrame(frameTime);
+        for (int i = 0; i < FrameMonitor.INTERVAL_SAMPLES; i++) {
+            frameTime += (i % 5 == 0) ? fastFrame * 2 : fastFrame;
+            monitor.doFrame(frameTime);
+        }
+        assertThat(monitor.getFrameIntervalNanos(), is(equalTo(fastFrame)));
+
+        reset(listener);
+        monitor.doFrame(frameTime + fastFrame * 2);
+        verify(listener).onFrameRendered(1);
+
+        monitor.stop();
+    }
+
+    @Test
+    public void reportsIntervals() throws Exception {
+        final FrameMonitor.Listener listener = mock(FrameMonitor.Listener.class);
+        final FrameMonitor monitor = new FrameMonitor(listener);
+
+        monitor.doFrame(FRAME);
+        verify(listener, never()).onFrameRendered(0);
+
+        monitor.start();
+        assertThat(monitor.isRunning(), is(true));
+
+        monitor.doFrame(FRAME);
+        monitor.doFrame(FRAME * 2);
+        verify(listener).onFrameRendered(0);
+
+        monitor.doFrame(FRAME * 5);
+        verify(listener).onFrameRendered(2);
+
+        monitor.stop();
+        assertThat(monitor.isRunning(), is(false));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import org.junit.Test;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class IdleTaskProfilerTests extends Go99TestCase {
+    private final AnimatorContext animatorContext = new AnimatorContext(getClass().getSimpleName());
+
+    @Test
+    public void getBucket() throws Exception {
+        assertThat(IdleTaskProfiler.getBucket(0L), is(equalTo(0)));
+        assertThat(IdleTaskProfiler.getBucket(999L), is(equalTo(0)));
+        assertThat(IdleTaskProfiler.getBucket(1000L), is(equalTo(1)));
+        assertThat(IdleTaskProfiler.getBucket(3000L), is(equalTo(2)));
+        assertThat(IdleTaskProfiler.getBucket(16000000L), is(equalTo(14)));
+        assertThat(IdleTaskProfiler.getBucket(Long.MAX_VALUE),
+                   is(equalTo(IdleTaskProfiler.BUCKET_COUNT - 1)));
+    }
+
+    @Test
+    public void recordsHistograms() throws Exception {
+        final IdleTaskProfiler.SlowTaskListener listener = mock(IdleTaskProfiler.SlowTaskListener.class);
+        final IdleTaskProfiler profiler = new IdleTaskProfiler(10000000L, listener);
+        final Runnable task = mock(Runnable.class);
+
+        profiler.record(animatorContext, task, 1000L);
+        profiler.record(animatorContext, task, 3000L);
+        verify(listener, never()).onSlowIdleTask(any(AnimatorContext.class), any(Runnable.class), anyLong());
+
+        profiler.record(animatorContext, task, 20000000L);
+        verify(listener).onSlowIdleTask(animatorContext, task, 20000000L);
+
+        final IdleTaskProfiler.Histogram histogram = profiler.getHistogram(task.getClass());
+        assertThat(histogram, is(notNullValue()));
+        //noinspection ConstantConditions
+        assertThat(histogram.getCount(), is(equalTo(3)));
+        assertThat(histogram.getMaxNanos(), is(equalTo(20000000L)));
+        assertThat(histogram.getTotalNanos(), is(equalTo(20004000L)));
+        assertThat(histogram.getBucketCount(1), is(equalTo(1)));
+        assertThat(histogram.getBucketCount(2), is(equalTo(1)));
+    }
+
+    @Test
+    public void profilesIdleTasks() throws Exception {
+        final IdleTaskProfiler profiler = new IdleTaskProfiler();
+        animatorContext.setIdleTaskProfiler(profiler);
+
+        final Runnable task = mock(Runnable.class);
+        animatorContext.beginAnimation("Test animation");
+        animatorContext.runWhenIdle(task);
+        animatorContext.endAnimation("Test animation");
+
+        verify(task).run();
+        assertThat(profiler.getTaskClasses().size(), is(equalTo(1)));
+        final IdleTaskProfiler.Histogram histogram = profiler.getHistogram(task.getClass());
+        //noinspection ConstantConditions
+        assertThat(histogram.getCount(), is(equalTo(1)));
+    }
+}
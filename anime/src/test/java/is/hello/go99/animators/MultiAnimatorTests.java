@@ -3,15 +3,22 @@ package is.hello.go99.animators;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.view.View;
 import android.view.animation.LinearInterpolator;
 import android.widget.FrameLayout;
 
 import org.hamcrest.CoreMatchers;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.robolectric.Robolectric;
 import org.robolectric.util.Scheduler;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -20,9 +27,11 @@ import is.hello.go99.Go99TestCase;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -38,6 +47,11 @@ public class MultiAnimatorTests extends Go99TestCase {
         this.animator = MultiAnimator.animatorFor(fakeView);
     }
 
+    @After
+    public void tearDown() {
+        RenderNodeAnimatorCompat.factory = null;
+    }
+
     @Test
     public void animatorForWithAnimatorContext() {
         final AnimatorContext testContext = new AnimatorContext("Test");
@@ -72,7 +86,7 @@ public class MultiAnimatorTests extends Go99TestCase {
             }
         });
 
-        animator.x(0f);
+        animator.x(20f);
         animator.start();
 
         assertThat(onAnimationCompletedCalled.get(), is(false));
@@ -114,7 +128,7 @@ public class MultiAnimatorTests extends Go99TestCase {
         assertThat(animator1Started.get(), is(true));
 
         MultiAnimator.animatorFor(fakeView, context)
-                     .x(0f)
+                     .x(20f)
                      .start();
 
         assertThat(animator1Canceled.get(), is(true));
@@ -164,7 +178,7 @@ public class MultiAnimatorTests extends Go99TestCase {
         final AnimatorContext testContext = spy(new AnimatorContext("Test"));
 
         final MultiAnimator animator = MultiAnimator.animatorFor(fakeView, testContext);
-        animator.translationY(0f);
+        animator.translationY(100f);
         animator.start();
 
         verify(testContext).beginAnimation(any(String.class));
@@ -221,6 +235,30 @@ public class MultiAnimatorTests extends Go99TestCase {
         assertThat(animator.isRunning(), is(false));
     }
 
+    @Test
+    public void endsUnderStartName() {
+        final Scheduler scheduler = Robolectric.getForegroundThreadScheduler();
+        scheduler.pause();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        testContext.setWatchdogTimeout(1000L, true);
+
+        final FrameLayout view = new FrameLayout(getContext());
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, testContext)
+                                                    .translationY(100f);
+        animator.start();
+
+        final String startName = animator.toString();
+        view.layout(0, 0, 100, 100);
+        assertThat(animator.toString(), is(not(equalTo(startName))));
+
+        animator.end();
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(0)));
+
+        scheduler.advanceBy(1000L);
+        assertThat(testContext.getTimedOutAnimationCount(), is(equalTo(0)));
+    }
+
     @Test
     public void toStringDoesNotInfiniteLoop() {
         assertThat(animator.toString(), is(notNullValue()));
@@ -262,4 +300,412 @@ public class MultiAnimatorTests extends Go99TestCase {
         assertThat(clone.getListeners(), is(equalTo(animator.getListeners())));
         assertThat(clone.getTarget(), is(equalTo(animator.getTarget())));
     }
+
+    @Test
+    public void withLayer() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, testContext)
+                                                    .withLayer()
+                                                    .scale(2f);
+        animator.start();
+
+        assertThat(view.getLayerType(), is(equalTo(View.LAYER_TYPE_HARDWARE)));
+        assertThat(testContext.getActiveHardwareLayerCount(), is(equalTo(1)));
+
+        animator.end();
+
+        assertThat(view.getLayerType(), is(equalTo(View.LAYER_TYPE_NONE)));
+        assertThat(testContext.getActiveHardwareLayerCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void withLayerRespectsBudget() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final FrameLayout view1 = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view1).isHardwareAccelerated();
+        final FrameLayout view2 = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view2).isHardwareAccelerated();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        testContext.setHardwareLayerBudget(1);
+
+        MultiAnimator.animatorFor(view1, testContext)
+                     .withLayer()
+                     .rotation(90f)
+                     .start();
+        MultiAnimator.animatorFor(view2, testContext)
+                     .withLayer()
+                     .rotation(90f)
+                     .start();
+
+        assertThat(view1.getLayerType(), is(equalTo(View.LAYER_TYPE_HARDWARE)));
+        assertThat(view2.getLayerType(), is(equalTo(View.LAYER_TYPE_NONE)));
+        assertThat(testContext.getActiveHardwareLayerCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void withLayerSkipsTranslation() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        MultiAnimator.animatorFor(view)
+                     .withLayer()
+                     .translationY(100f)
+                     .start();
+
+        assertThat(view.getLayerType(), is(equalTo(View.LAYER_TYPE_NONE)));
+    }
+
+    @Test
+    public void visibilityCulling() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = spy(new AnimatorContext("Test"));
+        final MultiAnimator animator = MultiAnimator.animatorFor(fakeView, testContext)
+                                                    .withVisibilityCulling()
+                                                    .translationY(100f);
+
+        final Animator.AnimatorListener listener = mock(Animator.AnimatorListener.class);
+        animator.addListener(listener);
+
+        fakeView.setVisibility(View.INVISIBLE);
+        animator.start();
+
+        verify(testContext, never()).beginAnimation(any(String.class));
+        verify(listener).onAnimationStart(animator);
+        verify(listener).onAnimationEnd(animator);
+        verify(listener, never()).onAnimationCancel(animator);
+
+        assertThat(fakeView.getTranslationY(), is(equalTo(100f)));
+        assertThat(animator.isRunning(), is(false));
+    }
+
+    @Test
+    public void instantMode() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = spy(new AnimatorContext("Test"));
+        testContext.setInstantMode(true);
+
+        final MultiAnimator animator = MultiAnimator.animatorFor(fakeView, testContext)
+                                                    .alpha(0f);
+        final Animator.AnimatorListener listener = mock(Animator.AnimatorListener.class);
+        animator.addListener(listener);
+        animator.start();
+
+        verify(testContext, never()).beginAnimation(any(String.class));
+        verify(listener).onAnimationStart(animator);
+        verify(listener).onAnimationEnd(animator);
+        assertThat(fakeView.getAlpha(), is(equalTo(0f)));
+    }
+
+    @Test
+    public void skipsPropertiesAtTarget() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = spy(new AnimatorContext("Test"));
+        final MultiAnimator animator = MultiAnimator.animatorFor(fakeView, testContext)
+                                                    .alpha(1f)
+                                                    .translationX(0.0001f)
+                                                    .scale(1f);
+        final Animator.AnimatorListener listener = mock(Animator.AnimatorListener.class);
+        animator.addListener(listener);
+        animator.start();
+
+        verify(testContext, never()).beginAnimation(any(String.class));
+        verify(listener).onAnimationStart(animator);
+        verify(listener).onAnimationEnd(animator);
+        assertThat(Anime.isAnimating(fakeView), is(false));
+
+        final MultiAnimator partial = MultiAnimator.animatorFor(fakeView, testContext)
+                                                   .alpha(1f)
+                                                   .translationX(100f);
+        partial.start();
+
+        verify(testContext).beginAnimation(any(String.class));
+        assertThat(Anime.isAnimating(fakeView), is(true));
+    }
+
+    @Test
+    public void withRenderThreadFallsBack() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = spy(new AnimatorContext("Test"));
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        final MultiAnimator animator = MultiAnimator.animatorFor(view, testContext)
+                                                    .withRenderThread()
+                                                    .alpha(0f)
+                                                    .translationY(100f);
+        animator.start();
+
+        verify(view).animate();
+        verify(testContext).beginAnimation(any(String.class));
+        assertThat(animator.isRunning(), is(true));
+
+        animator.end();
+        assertThat(view.getAlpha(), is(equalTo(0f)));
+        assertThat(view.getTranslationY(), is(equalTo(100f)));
+        verify(testContext).endAnimation(any(String.class));
+    }
+
+    @Test
+    public void withRenderThreadOverlappingStarts() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final List<Animator> renderThreadAnimators = fakeRenderThreadAnimators();
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        final MultiAnimator dim = MultiAnimator.animatorFor(view, testContext)
+                                               .withRenderThread()
+                                               .withDuration(100)
+                                               .withInterpolator(new LinearInterpolator())
+                                               .alpha(0.5f);
+        final Animator.AnimatorListener dimListener = mock(Animator.AnimatorListener.class);
+        dim.addListener(dimListener);
+        dim.start();
+        assertThat(renderThreadAnimators.size(), is(equalTo(1)));
+        assertThat(view.getAlpha(), is(equalTo(1f)));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(1)));
+
+        SystemClock.sleep(50);
+
+        final MultiAnimator undim = MultiAnimator.animatorFor(view, testContext)
+                                                 .withRenderThread()
+                                                 .alpha(1f);
+        undim.start();
+
+        verify(dimListener).onAnimationCancel(dim);
+        verify(dimListener).onAnimationEnd(dim);
+        assertThat(renderThreadAnimators.get(0).isStarted(), is(false));
+        assertThat(view.getAlpha(), is(equalTo(0.75f)));
+        assertThat(renderThreadAnimators.size(), is(equalTo(2)));
+        assertThat(undim.isRunning(), is(true));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(1)));
+
+        undim.end();
+        assertThat(view.getAlpha(), is(equalTo(1f)));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void withRenderThreadCancelAppliesProgress() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final List<Animator> renderThreadAnimators = fakeRenderThreadAnimators();
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        final MultiAnimator slide = MultiAnimator.animatorFor(view, testContext)
+                                                 .withRenderThread()
+                                                 .withDuration(100)
+                                                 .withInterpolator(new LinearInterpolator())
+                                                 .translationY(100f);
+        slide.start();
+        SystemClock.sleep(25);
+        slide.cancel();
+
+        assertThat(renderThreadAnimators.get(0).isStarted(), is(false));
+        assertThat(view.getTranslationY(), is(equalTo(25f)));
+        assertThat(slide.isRunning(), is(false));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void withRenderThreadPauseAndResume() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final List<Animator> renderThreadAnimators = fakeRenderThreadAnimators();
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        final MultiAnimator slide = MultiAnimator.animatorFor(view, testContext)
+                                                 .withRenderThread()
+                                                 .withDuration(100)
+                                                 .withInterpolator(new LinearInterpolator())
+                                                 .translationY(100f);
+        slide.start();
+        SystemClock.sleep(25);
+
+        slide.pause();
+        assertThat(slide.isPaused(), is(true));
+        assertThat(renderThreadAnimators.get(0).isStarted(), is(false));
+        assertThat(view.getTranslationY(), is(equalTo(25f)));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(1)));
+
+        SystemClock.sleep(1000);
+        slide.resume();
+        assertThat(slide.isPaused(), is(false));
+        assertThat(renderThreadAnimators.size(), is(equalTo(2)));
+        assertThat(renderThreadAnimators.get(1).getDuration(), is(equalTo(75L)));
+        assertThat(renderThreadAnimators.get(1).isStarted(), is(true));
+
+        slide.end();
+        assertThat(view.getTranslationY(), is(equalTo(100f)));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void skipCancelsRenderThreadAnimations() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final List<Animator> renderThreadAnimators = fakeRenderThreadAnimators();
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        final FrameLayout view = spy(new FrameLayout(getContext()));
+        doReturn(true).when(view).isHardwareAccelerated();
+
+        final MultiAnimator dim = MultiAnimator.animatorFor(view, testContext)
+                                               .withRenderThread()
+                                               .alpha(0.5f);
+        dim.start();
+        SystemClock.sleep(50);
+
+        final MultiAnimator skipped = MultiAnimator.animatorFor(view, testContext)
+                                                   .alpha(0.25f);
+        skipped.skipNextStart();
+        skipped.start();
+
+        assertThat(renderThreadAnimators.get(0).isStarted(), is(false));
+        assertThat(dim.isRunning(), is(false));
+        assertThat(view.getAlpha(), is(equalTo(0.25f)));
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
+
+    /**
+     * Substitutes plain value animators for the platform's RenderThread animators.
+     *
+     * @return The list the substitute animators are added to as they're created.
+     */
+    private static List<Animator> fakeRenderThreadAnimators() {
+        final List<Animator> animators = new ArrayList<>();
+        RenderNodeAnimatorCompat.factory = new RenderNodeAnimatorCompat.Factory() {
+            @Override
+            public Animator create(@NonNull View target, int property, float finalValue) {
+                final Animator animator = ValueAnimator.ofFloat(0f, 1f);
+                animators.add(animator);
+                return animator;
+            }
+        };
+        return animators;
+    }
+
+    @Test
+    public void startBatching() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        testContext.setStartBatchingEnabled(true);
+
+        final MultiAnimator first = MultiAnimator.animatorFor(fakeView, testContext)
+                                                 .alpha(0f)
+                                                 .translationX(50f);
+        final Animator.AnimatorListener firstListener = mock(Animator.AnimatorListener.class);
+        first.addListener(firstListener);
+        first.start();
+        assertThat(first.isRunning(), is(false));
+
+        final MultiAnimator second = MultiAnimator.animatorFor(fakeView, testContext)
+                                                  .translationX(100f);
+        second.start();
+        verify(firstListener).onAnimationCancel(first);
+        verify(firstListener).onAnimationEnd(first);
+
+        testContext.flushScheduledStarts();
+        assertThat(second.isRunning(), is(true));
+
+        second.end();
+        assertThat(fakeView.getAlpha(), is(equalTo(0f)));
+        assertThat(fakeView.getTranslationX(), is(equalTo(100f)));
+    }
+
+    @Test
+    public void cancelBatchedStart() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        testContext.setStartBatchingEnabled(true);
+
+        final Runnable idleTask = mock(Runnable.class);
+        final MultiAnimator animator = MultiAnimator.animatorFor(fakeView, testContext)
+                                                    .alpha(0f);
+        animator.start();
+        testContext.runWhenIdle(idleTask);
+        verify(idleTask, never()).run();
+
+        animator.cancel();
+        testContext.flushScheduledStarts();
+        assertThat(animator.isRunning(), is(false));
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+        verify(idleTask).run();
+    }
+
+    @Test
+    public void endBatchedStart() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        testContext.setStartBatchingEnabled(true);
+
+        fakeView.setVisibility(View.INVISIBLE);
+        final MultiAnimator animator = MultiAnimator.animatorFor(fakeView, testContext)
+                                                    .fadeIn();
+        final Animator.AnimatorListener listener = mock(Animator.AnimatorListener.class);
+        animator.addListener(listener);
+        animator.start();
+
+        animator.end();
+        assertThat(fakeView.getVisibility(), is(equalTo(View.VISIBLE)));
+        assertThat(fakeView.getAlpha(), is(equalTo(1f)));
+        verify(listener).onAnimationStart(animator);
+        verify(listener).onAnimationEnd(animator);
+
+        testContext.flushScheduledStarts();
+        assertThat(animator.isRunning(), is(false));
+    }
+
+    @Test
+    public void skippedStartsAreNotBatched() {
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        final AnimatorContext testContext = new AnimatorContext("Test");
+        testContext.setStartBatchingEnabled(true);
+
+        final MultiAnimator skipped = MultiAnimator.animatorFor(fakeView, testContext)
+                                                   .translationX(100f);
+        final Animator.AnimatorListener listener = mock(Animator.AnimatorListener.class);
+        skipped.addListener(listener);
+        skipped.skipNextStart();
+        skipped.start();
+        assertThat(fakeView.getTranslationX(), is(equalTo(100f)));
+        verify(listener).onAnimationEnd(skipped);
+
+        testContext.setInstantMode(true);
+        MultiAnimator.animatorFor(fakeView, testContext)
+                     .alpha(0f)
+                     .start();
+        assertThat(fakeView.getAlpha(), is(equalTo(0f)));
+
+        testContext.setInstantMode(false);
+        MultiAnimator.animatorFor(fakeView, testContext)
+                     .withVisibilityCulling()
+                     .translationY(100f)
+                     .start();
+        assertThat(fakeView.getTranslationY(), is(equalTo(100f)));
+
+        assertThat(testContext.getActiveAnimationCount(), is(equalTo(0)));
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class PerformanceRecorderTests extends Go99TestCase {
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        this.file = File.createTempFile("animations", ".perf");
+        if (!file.delete()) {
+            fail("Could not delete " + file);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (int i = 1; i <= 2; i++) {
+            //noinspection ResultOfMethodCallIgnored
+            new File(file.getPath() + "." + i).delete();
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void clamping() throws Exception {
+        assertThat(PerformanceRecorder.clampToShort(-1), is(equalTo((short) 0)));
+        assertThat(PerformanceRecorder.clampToShort(42), is(equalTo((short) 42)));
+        assertThat(PerformanceRecorder.clampToShort(100000), is(equalTo(Short.MAX_VALUE)));
+
+        assertThat(PerformanceRecorder.nanosToMicros(-1L), is(equalTo(0)));
+        assertThat(PerformanceRecorder.nanosToMicros(1500000L), is(equalTo(1500)));
+        assertThat(PerformanceRecorder.nanosToMicros(Long.MAX_VALUE), is(equalTo(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void recordsAndDecodes() throws Exception {
+        final PerformanceRecorder recorder = new PerformanceRecorder(file);
+        recorder.record(0xCAFE, 3, 250000000L, 2, 16000000L);
+        recorder.record(0xBEEF, 1, 100000L, 0, 0L);
+        recorder.close().get();
+
+        final List<PerformanceRecorder.Record> records = PerformanceRecorder.decode(file);
+        assertThat(records.size(), is(equalTo(2)));
+
+        final PerformanceRecorder.Record first = records.get(0);
+        assertThat(first.getNameHash(), is(equalTo(0xCAFE)));
+        assertThat(first.getMemberCount(), is(equalTo(3)));
+        assertThat(first.getDurationMicros(), is(equalTo(250000)));
+        assertThat(first.getDroppedFrames(), is(equalTo(2)));
+        assertThat(first.getIdleWaitMicros(), is(equalTo(16000)));
+
+        final PerformanceRecorder.Record second = records.get(1);
+        assertThat(second.getNameHash(), is(equalTo(0xBEEF)));
+        assertThat(second.getMemberCount(), is(equalTo(1)));
+        assertThat(second.getDurationMicros(), is(equalTo(100)));
+        assertThat(second.getDroppedFrames(), is(equalTo(0)));
+        assertThat(second.getIdleWaitMicros(), is(equalTo(0)));
+    }
+
+    @Test
+    public void appendsAcrossRecorders() throws Exception {
+        final PerformanceRecorder first = new PerformanceRecorder(file);
+        first.record(1, 1, 0L, 0, 0L);
+        first.close().get();
+
+        final PerformanceRecorder second = new PerformanceRecorder(file);
+        second.record(2, 1, 0L, 0, 0L);
+        second.close().get();
+
+        final List<PerformanceRecorder.Record> records = PerformanceRecorder.decode(file);
+        assertThat(records.size(), is(equalTo(2)));
+        assertThat(records.get(0).getNameHash(), is(equalTo(1)));
+        assertThat(records.get(1).getNameHash(), is(equalTo(2)));
+    }
+
+    @Test
+    public void rotatesBySize() throws Exception {
+        final long maxFileSize = PerformanceRecorder.HEADER_SIZE + PerformanceRecorder.RECORD_SIZE;
+        final PerformanceRecorder recorder = new PerformanceRecorder(file, maxFileSize, 1);
+        for (int i = 0; i < 3; i++) {
+            recorder.record(i, 1, 0L, 0, 0L);
+            recorder.flush().get();
+        }
+        recorder.close().get();
+
+        final List<PerformanceRecorder.Record> current = PerformanceRecorder.decode(file);
+        assertThat(current.size(), is(equalTo(1)));
+        assertThat(current.get(0).getNameHash(), is(equalTo(2)));
+
+        final List<PerformanceRecorder.Record> backup =
+                PerformanceRecorder.decode(recorder.getBackupFile(1));
+        assertThat(backup.size(), is(equalTo(1)));
+        assertThat(backup.get(0).getNameHash(), is(equalTo(1)));
+
+        assertThat(recorder.getBackupFile(2).exists(), is(false));
+    }
+
+    @Test
+    public void decodeIgnoresTruncatedRecord() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(PerformanceRecorder.HEADER_SIZE +
+                                                              PerformanceRecorder.RECORD_SIZE + 4);
+        buffer.putInt(PerformanceRecorder.MAGIC);
+        buffer.putInt(PerformanceRecorder.VERSION);
+        buffer.putLong(1000L);
+        buffer.putInt(42);
+        buffer.putShort((short) 2);
+        buffer.putShort((short) 1);
+        buffer.putInt(500);
+        buffer.putInt(0);
+        buffer.putInt(0xFFFF);
+        buffer.flip();
+
+        final List<PerformanceRecorder.Record> records = PerformanceRecorder.decode(buffer);
+        assertThat(records.size(), is(equalTo(1)));
+        assertThat(records.get(0).getTimestamp(), is(equalTo(1000L)));
+        assertThat(records.get(0).getNameHash(), is(equalTo(42)));
+    }
+
+    @Test
+    public void decodeRejectsForeignData() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(PerformanceRecorder.HEADER_SIZE);
+        buffer.putInt(0x12345678);
+        buffer.putInt(PerformanceRecorder.VERSION);
+        buffer.flip();
+
+        try {
+            PerformanceRecorder.decode(buffer);
+            fail("Foreign data decoded");
+        } catch (IOException ignored) {
+        }
+    }
+}
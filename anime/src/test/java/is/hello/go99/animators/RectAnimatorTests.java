@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.animators;
+
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import is.hello.go99.Go99TestCase;
+import is.hello.go99.evaluators.RectEvaluatorCompat;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class RectAnimatorTests extends Go99TestCase {
+    private final Rect START = new Rect(0, 0, 500, 500);
+    private final Rect MIDDLE = new Rect(250, 250, 750, 750);
+    private final Rect END = new Rect(500, 500, 1000, 1000);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresRects() throws Exception {
+        RectAnimator.ofRects();
+    }
+
+    @Test
+    public void deliversRects() throws Exception {
+        final RectAnimator animator = RectAnimator.ofRects(START, MIDDLE, END);
+        animator.setInterpolator(new LinearInterpolator());
+        animator.setDuration(100);
+
+        final AtomicInteger updates = new AtomicInteger();
+        animator.addRectUpdateListener(new RectAnimator.RectUpdateListener() {
+            @Override
+            public void onRectUpdate(@NonNull RectAnimator animator, @NonNull Rect rect) {
+                assertThat(rect, is(sameInstance(animator.getAnimatedRect())));
+                updates.incrementAndGet();
+            }
+        });
+
+        animator.setCurrentPlayTime(25);
+        assertThat(animator.getAnimatedRect(), is(equalTo(new Rect(125, 125, 625, 625))));
+
+        animator.setCurrentPlayTime(50);
+        assertThat(animator.getAnimatedRect(), is(equalTo(MIDDLE)));
+
+        animator.setCurrentPlayTime(100);
+        assertThat(animator.getAnimatedRect(), is(equalTo(END)));
+        assertThat(animator.getAnimatedValue(), is(sameInstance((Object) animator.getAnimatedRect())));
+
+        assertThat(updates.get(), is(equalTo(3)));
+    }
+
+    @Test
+    public void keyframeFractions() throws Exception {
+        final int[] keyframes = RectEvaluatorCompat.pack(START, MIDDLE, END);
+        final RectAnimator animator = RectAnimator.ofKeyframes(keyframes,
+                                                               new float[] { 0f, 0.8f, 1f });
+
+        animator.evaluate(0f);
+        assertThat(animator.getAnimatedRect(), is(equalTo(START)));
+
+        animator.evaluate(0.4f);
+        assertThat(animator.getAnimatedRect(), is(equalTo(new Rect(125, 125, 625, 625))));
+
+        animator.evaluate(0.8f);
+        assertThat(animator.getAnimatedRect(), is(equalTo(MIDDLE)));
+
+        animator.evaluate(0.9f);
+        assertThat(animator.getAnimatedRect(), is(equalTo(new Rect(375, 375, 875, 875))));
+
+        animator.evaluate(1f);
+        assertThat(animator.getAnimatedRect(), is(equalTo(END)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keyframesMustBePacked() throws Exception {
+        RectAnimator.ofKeyframes(new int[] { 0, 0, 10 }, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fractionsMustMatchKeyframes() throws Exception {
+        RectAnimator.ofKeyframes(RectEvaluatorCompat.pack(START, END), new float[] { 0f });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fractionsMustNotDecrease() throws Exception {
+        RectAnimator.ofKeyframes(RectEvaluatorCompat.pack(START, MIDDLE, END),
+                                 new float[] { 0f, 0.8f, 0.5f });
+    }
+}
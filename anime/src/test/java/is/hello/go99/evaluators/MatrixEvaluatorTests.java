@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.evaluators;
+
+import android.graphics.Matrix;
+
+import org.junit.Test;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class MatrixEvaluatorTests extends Go99TestCase {
+    @Test
+    public void reusesMatrix() throws Exception {
+        final Matrix start = new Matrix();
+        final Matrix end = new Matrix();
+        end.setScale(2f, 2f);
+
+        final Matrix source = new Matrix();
+        final MatrixEvaluator evaluator = new MatrixEvaluator(source);
+
+        assertThat(evaluator.evaluate(0.00f, start, end), sameInstance(source));
+        assertThat(evaluator.evaluate(0.50f, start, end), sameInstance(source));
+        assertThat(evaluator.evaluate(1.00f, start, end), sameInstance(source));
+    }
+
+    @Test
+    public void interpolates() throws Exception {
+        final Matrix start = new Matrix();
+        start.setValues(new float[] {
+                1f, 0f, 10f,
+                0f, 1f, 20f,
+                0f, 0f, 1f,
+        });
+        final Matrix end = new Matrix();
+        end.setValues(new float[] {
+                3f, 0f, 30f,
+                0f, 5f, 60f,
+                0f, 0f, 1f,
+        });
+
+        final MatrixEvaluator evaluator = new MatrixEvaluator();
+        final float[] values = new float[9];
+
+        evaluator.evaluate(0.00f, start, end).getValues(values);
+        assertThat(values, is(equalTo(new float[] {
+                1f, 0f, 10f,
+                0f, 1f, 20f,
+                0f, 0f, 1f,
+        })));
+
+        evaluator.evaluate(0.50f, start, end).getValues(values);
+        assertThat(values, is(equalTo(new float[] {
+                2f, 0f, 20f,
+                0f, 3f, 40f,
+                0f, 0f, 1f,
+        })));
+
+        evaluator.evaluate(1.00f, start, end).getValues(values);
+        assertThat(values, is(equalTo(new float[] {
+                3f, 0f, 30f,
+                0f, 5f, 60f,
+                0f, 0f, 1f,
+        })));
+    }
+}
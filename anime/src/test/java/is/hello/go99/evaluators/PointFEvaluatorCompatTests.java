@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.evaluators;
+
+import android.graphics.PointF;
+
+import org.junit.Test;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PointFEvaluatorCompatTests extends Go99TestCase {
+    private final PointF START = new PointF(0f, 0f);
+    private final PointF END = new PointF(100f, -100f);
+
+    @Test
+    public void reusesPoint() throws Exception {
+        final PointF source = new PointF();
+        final PointFEvaluatorCompat evaluator = new PointFEvaluatorCompat(source);
+
+        assertThat(evaluator.evaluate(0.00f, START, END), sameInstance(source));
+        assertThat(evaluator.evaluate(0.50f, START, END), sameInstance(source));
+        assertThat(evaluator.evaluate(1.00f, START, END), sameInstance(source));
+    }
+
+    @Test
+    public void interpolates() throws Exception {
+        final PointFEvaluatorCompat evaluator = new PointFEvaluatorCompat();
+
+        PointF point = evaluator.evaluate(0.25f, START, END);
+        assertThat(point.x, is(25f));
+        assertThat(point.y, is(-25f));
+
+        point = evaluator.evaluate(1f, START, END);
+        assertThat(point.x, is(100f));
+        assertThat(point.y, is(-100f));
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 
 import is.hello.go99.Go99TestCase;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
@@ -56,4 +57,23 @@ public class RectEvaluatorCompatTests extends Go99TestCase {
         assertThat(evaluator.evaluate(0.75f, START, END), is(new Rect(187, 187, 687, 687)));
         assertThat(evaluator.evaluate(1.00f, START, END), is(new Rect(250, 250, 750, 750)));
     }
+
+    @Test
+    public void pack() throws Exception {
+        assertThat(RectEvaluatorCompat.pack(START, END),
+                   is(equalTo(new int[] { 0, 0, 500, 500, 250, 250, 750, 750 })));
+    }
+
+    @Test
+    public void interpolatesPacked() throws Exception {
+        final Rect source = new Rect();
+        final RectEvaluatorCompat evaluator = new RectEvaluatorCompat(source);
+        final int[] packed = RectEvaluatorCompat.pack(START, END, START);
+
+        assertThat(evaluator.evaluate(0.50f, packed, 0, 1), is(sameInstance(source)));
+        assertThat(evaluator.evaluate(0.00f, packed, 0, 1), is(new Rect(0, 0, 500, 500)));
+        assertThat(evaluator.evaluate(0.25f, packed, 0, 1), is(new Rect(62, 62, 562, 562)));
+        assertThat(evaluator.evaluate(1.00f, packed, 0, 1), is(new Rect(250, 250, 750, 750)));
+        assertThat(evaluator.evaluate(0.50f, packed, 1, 2), is(new Rect(125, 125, 625, 625)));
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.evaluators;
+
+import android.graphics.RectF;
+
+import org.junit.Test;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class RectFEvaluatorTests extends Go99TestCase {
+    private final RectF START = new RectF(0f, 0f, 500f, 500f);
+    private final RectF END = new RectF(250f, 250f, 750f, 750f);
+
+    @Test
+    public void reusesRect() throws Exception {
+        final RectF source = new RectF();
+        final RectFEvaluator evaluator = new RectFEvaluator(source);
+
+        assertThat(evaluator.evaluate(0.00f, START, END), sameInstance(source));
+        assertThat(evaluator.evaluate(0.50f, START, END), sameInstance(source));
+        assertThat(evaluator.evaluate(1.00f, START, END), sameInstance(source));
+    }
+
+    @Test
+    public void interpolates() throws Exception {
+        final RectFEvaluator evaluator = new RectFEvaluator();
+
+        final RectF rect = evaluator.evaluate(0.25f, START, END);
+        assertThat(rect.left, is(62.5f));
+        assertThat(rect.top, is(62.5f));
+        assertThat(rect.right, is(562.5f));
+        assertThat(rect.bottom, is(562.5f));
+    }
+}
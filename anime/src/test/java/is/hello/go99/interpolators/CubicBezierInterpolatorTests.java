@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 Hello Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package is.hello.go99.interpolators;
+
+import org.junit.Test;
+
+import is.hello.go99.Go99TestCase;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class CubicBezierInterpolatorTests extends Go99TestCase {
+    private static final float EPSILON = 0.001f;
+
+    @Test
+    public void interning() throws Exception {
+        assertThat(CubicBezierInterpolator.of(0.4f, 0f, 0.2f, 1f),
+                   is(sameInstance(CubicBezierInterpolator.FAST_OUT_SLOW_IN)));
+        assertThat(CubicBezierInterpolator.of(0.1f, 0.2f, 0.3f, 0.4f),
+                   is(sameInstance(CubicBezierInterpolator.of(0.1f, 0.2f, 0.3f, 0.4f))));
+        assertThat(CubicBezierInterpolator.of(0.1f, 0.2f, 0.3f, 0.4f),
+                   is(equalTo(CubicBezierInterpolator.of(0.1f, 0.2f, 0.3f, 0.4f))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidControlPoints() throws Exception {
+        CubicBezierInterpolator.of(1.5f, 0f, 0.2f, 1f);
+    }
+
+    @Test
+    public void endPoints() throws Exception {
+        final CubicBezierInterpolator interpolator = CubicBezierInterpolator.FAST_OUT_SLOW_IN;
+        assertThat(interpolator.getInterpolation(0f), is(0f));
+        assertThat(interpolator.getInterpolation(1f), is(1f));
+        assertThat(interpolator.getInterpolation(-1f), is(0f));
+        assertThat(interpolator.getInterpolation(2f), is(1f));
+    }
+
+    @Test
+    public void linear() throws Exception {
+        final CubicBezierInterpolator interpolator = CubicBezierInterpolator.of(0.25f, 0.25f,
+                                                                                0.75f, 0.75f);
+        assertThat(interpolator.getInterpolation(0.25f), is(0.25f));
+        assertThat(interpolator.getInterpolation(0.50f), is(0.50f));
+        assertThat(interpolator.getInterpolation(0.75f), is(0.75f));
+    }
+
+    @Test
+    public void matchesReferenceCurves() throws Exception {
+        // Reference values taken from the CSS 'ease' timing function.
+        final CubicBezierInterpolator ease = CubicBezierInterpolator.of(0.25f, 0.1f, 0.25f, 1f);
+        assertEquals(0.4094f, ease.getInterpolation(0.25f), EPSILON);
+        assertEquals(0.8024f, ease.getInterpolation(0.50f), EPSILON);
+        assertEquals(0.9604f, ease.getInterpolation(0.75f), EPSILON);
+
+        final CubicBezierInterpolator fastOutSlowIn = CubicBezierInterpolator.FAST_OUT_SLOW_IN;
+        assertEquals(0.7756f, fastOutSlowIn.getInterpolation(0.5f), EPSILON);
+    }
+
+    @Test
+    public void monotonic() throws Exception {
+        final CubicBezierInterpolator interpolator = CubicBezierInterpolator.FAST_OUT_LINEAR_IN;
+        float last = 0f;
+        for (int i = 1; i <= 100; i++) {
+            final float value = interpolator.getInterpolation(i / 100f);
+            assertThat(value >= last, is(true));
+            last = value;
+        }
+    }
+}
@@ -19,8 +19,6 @@ import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
-import android.support.v4.view.animation.FastOutLinearInInterpolator;
-import android.support.v4.view.animation.FastOutSlowInInterpolator;
 import android.support.v4.widget.SwipeRefreshLayout;
 import android.support.v7.app.AlertDialog;
 import android.support.v7.widget.LinearLayoutManager;
@@ -46,6 +44,7 @@ import is.hello.go99.example.data.AmplitudeSource;
 import is.hello.go99.example.data.RandomAmplitudeSource;
 import is.hello.go99.example.view.AmplitudeItemAnimator;
 import is.hello.go99.example.view.InfoTooltipView;
+import is.hello.go99.interpolators.CubicBezierInterpolator;
 
 import static is.hello.go99.animators.MultiAnimator.animatorFor;
 
@@ -53,6 +52,10 @@ public class AmplitudesFragment extends Fragment
         implements AnimatorContext.Scene, SwipeRefreshLayout.OnRefreshListener,
         AmplitudeSource.Consumer, AmplitudeAdapter.OnClickListener, InfoTooltipView.OnDismissListener {
     private static final float TARGET_DIMMED_ALPHA = 0.25f;
+    private static final int DIM_TRANSACTION_OPTIONS = (AnimatorContext.OPTIONS_DEFAULT |
+            AnimatorContext.OPTION_HARDWARE_LAYERS |
+            AnimatorContext.OPTION_CULL_INVISIBLE |
+            AnimatorContext.OPTION_RENDER_THREAD);
 
     private static final String SAVED_SOURCE_STATE = AmplitudesFragment.class.getName() + ".SAVED_SOURCE_STATE";
     private static final String SAVED_WANTS_LONG_DELAY_STEP = AmplitudesFragment.class.getName() + ".SAVED_WANTS_LONG_DELAY_STEP";
@@ -294,8 +297,8 @@ public class AmplitudesFragment extends Fragment
         }
 
         final AnimatorTemplate animatorTemplate = new AnimatorTemplate(Anime.DURATION_FAST,
-                                                                       new FastOutLinearInInterpolator());
-        getAnimatorContext().transaction(animatorTemplate, AnimatorContext.OPTIONS_DEFAULT, new AnimatorContext.TransactionConsumer() {
+                                                                       CubicBezierInterpolator.FAST_OUT_LINEAR_IN);
+        getAnimatorContext().transaction(animatorTemplate, DIM_TRANSACTION_OPTIONS, new AnimatorContext.TransactionConsumer() {
             @Override
             public void consume(@NonNull AnimatorContext.Transaction transaction) {
                 long delay = 0;
@@ -338,8 +341,8 @@ public class AmplitudesFragment extends Fragment
 
     private void undimAmplitudes() {
         final AnimatorTemplate animatorTemplate = new AnimatorTemplate(Anime.DURATION_FAST,
-                                                                       new FastOutSlowInInterpolator());
-        getAnimatorContext().transaction(animatorTemplate, AnimatorContext.OPTIONS_DEFAULT, new AnimatorContext.TransactionConsumer() {
+                                                                       CubicBezierInterpolator.FAST_OUT_SLOW_IN);
+        getAnimatorContext().transaction(animatorTemplate, DIM_TRANSACTION_OPTIONS, new AnimatorContext.TransactionConsumer() {
             @Override
             public void consume(@NonNull AnimatorContext.Transaction transaction) {
                 for (int i = 0, count = recyclerView.getChildCount(); i < count; i++) {
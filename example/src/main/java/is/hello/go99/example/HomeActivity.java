@@ -18,24 +18,34 @@ package is.hello.go99.example;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.v4.view.ViewPager;
-import android.support.v4.view.animation.FastOutSlowInInterpolator;
 import android.support.v7.app.AppCompatActivity;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
+import android.view.View;
 
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+
+import is.hello.go99.Anime;
 import is.hello.go99.animators.AnimatorContext;
+import is.hello.go99.animators.AnimatorDebugOverlay;
 import is.hello.go99.animators.AnimatorTemplate;
+import is.hello.go99.animators.PerformanceRecorder;
 import is.hello.go99.example.adapter.AmplitudeFragmentsAdapter;
 import is.hello.go99.example.view.ViewPagerAnimatorContextAdapter;
+import is.hello.go99.interpolators.CubicBezierInterpolator;
 
 public class HomeActivity extends AppCompatActivity implements AnimatorContext.Scene, ViewPager.OnPageChangeListener {
     private static final int NUMBER_FRAGMENTS = 7;
+    private static final int ANIMATION_BUDGET = 64;
     private static final String SAVED_ENABLE_LONG_ANIMATIONS = HomeActivity.class.getName() + ".SAVED_ENABLE_LONG_ANIMATIONS";
 
     private AnimatorContext animatorContext;
 
     private ViewPager viewPager;
+    private AnimatorDebugOverlay debugOverlay;
     private AmplitudeFragmentsAdapter adapter;
 
     private boolean enableLongAnimations = false;
@@ -52,9 +62,18 @@ public class HomeActivity extends AppCompatActivity implements AnimatorContext.S
         setContentView(R.layout.activity_home);
 
         this.animatorContext = new AnimatorContext(getClass().getSimpleName());
-        animatorContext.setTransactionTemplate(new AnimatorTemplate(new FastOutSlowInInterpolator()));
+        animatorContext.setTransactionTemplate(new AnimatorTemplate(CubicBezierInterpolator.FAST_OUT_SLOW_IN));
+        animatorContext.setAnimationBudget(ANIMATION_BUDGET);
+        animatorContext.setAdaptiveQualityEnabled(true);
+        animatorContext.setInstanceTrackingEnabled(true);
+        if (BuildConfig.DEBUG) {
+            final File performanceLog = new File(getFilesDir(), "animations.perf");
+            animatorContext.setPerformanceRecorder(new PerformanceRecorder(performanceLog));
+        }
 
         this.viewPager = (ViewPager) findViewById(R.id.activity_home_view_pager);
+        this.debugOverlay = (AnimatorDebugOverlay) findViewById(R.id.activity_home_debug_overlay);
+        debugOverlay.setScene(this);
 
         final ViewPagerAnimatorContextAdapter animatorContextAdapter
                 = new ViewPagerAnimatorContextAdapter(animatorContext);
@@ -72,6 +91,21 @@ public class HomeActivity extends AppCompatActivity implements AnimatorContext.S
         }
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+
+        animatorContext.updateInstantMode(this);
+        animatorContext.resume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+
+        animatorContext.pause();
+    }
+
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -84,6 +118,21 @@ public class HomeActivity extends AppCompatActivity implements AnimatorContext.S
         super.onDestroy();
 
         viewPager.clearOnPageChangeListeners();
+        animatorContext.cancelAll();
+
+        final PerformanceRecorder performanceRecorder = animatorContext.getPerformanceRecorder();
+        if (performanceRecorder != null) {
+            animatorContext.setPerformanceRecorder(null);
+            performanceRecorder.close();
+        }
+    }
+
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+
+        animatorContext.dump(writer);
+        Anime.dump(writer);
     }
 
     //endregion
@@ -124,6 +173,13 @@ public class HomeActivity extends AppCompatActivity implements AnimatorContext.S
                 return true;
             }
 
+            case R.id.action_debug_overlay: {
+                final boolean newValue = !item.isChecked();
+                debugOverlay.setVisibility(newValue ? View.VISIBLE : View.GONE);
+                item.setChecked(newValue);
+                return true;
+            }
+
             case R.id.action_clear: {
                 final AmplitudesFragment currentFragment =
                         (AmplitudesFragment) adapter.getCurrentFragment();
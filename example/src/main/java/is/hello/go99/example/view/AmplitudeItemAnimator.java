@@ -41,7 +41,7 @@ import is.hello.go99.example.adapter.AmplitudeAdapter;
  * <p>
  * The implementation of the animations are split between {@link Change} and
  * {@link AmplitudeView}. {@code Change} uses a {@link MultiAnimator} to efficiently
- * fade the views in and out, and {@code AmplitudeView} uses a classic {@code ValueAnimator}
+ * fade the views in and out, and {@code AmplitudeView} uses a {@code ColorAnimator}
  * to expand its amplitude bar from the left to the right.
  */
 public class AmplitudeItemAnimator extends RecyclerView.ItemAnimator {
@@ -17,7 +17,6 @@ package is.hello.go99.example.view;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Canvas;
@@ -34,6 +33,7 @@ import java.util.Arrays;
 
 import is.hello.go99.Anime;
 import is.hello.go99.animators.AnimatorContext;
+import is.hello.go99.animators.ColorAnimator;
 import is.hello.go99.example.R;
 
 /**
@@ -45,7 +45,7 @@ public class AmplitudeView extends View {
     private final Paint fillPaint = new Paint();
     private final Colors colors;
 
-    private @Nullable ValueAnimator changeAnimator;
+    private @Nullable ColorAnimator changeAnimator;
 
 
     /**
@@ -172,13 +172,12 @@ public class AmplitudeView extends View {
         final @ColorInt int[] colors = this.colors.getAnimatorColors(oldAmplitude, newAmplitude);
         this.changeAnimator = transaction.template.createColorAnimator(colors);
         changeAnimator.setStartDelay(animationDelay);
-        changeAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+        changeAnimator.addColorUpdateListener(new ColorAnimator.ColorUpdateListener() {
             @Override
-            public void onAnimationUpdate(ValueAnimator animator) {
+            public void onColorUpdate(@NonNull ColorAnimator animator, @ColorInt int rawColor) {
                 AmplitudeView.this.amplitude = Anime.interpolateFloats(animator.getAnimatedFraction(),
                                                                        oldAmplitude,
                                                                        newAmplitude);
-                final @ColorInt int rawColor = (int) animator.getAnimatedValue();
                 fillPaint.setColor(Colors.withAlpha(rawColor, fillPaint.getAlpha()));
                 invalidate();
             }